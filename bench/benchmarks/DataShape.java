@@ -0,0 +1,68 @@
+package benchmarks;
+
+import enums.TaskStatus;
+import managers.TaskManager;
+import tasks.Epic;
+import tasks.Subtask;
+import tasks.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// Форма данных: size - общее число задач и подзадач, которые попадают в список приоритетов
+public enum DataShape {
+    TASKS_ONLY(0),
+    MANY_SMALL_EPICS(10),
+    FEW_HUGE_EPICS(-10);
+
+    public static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+    public static final Duration STEP = Duration.ofMinutes(10);
+    public static final Duration DURATION = Duration.ofMinutes(5);
+
+    // > 0 - число подзадач в каждом эпике, < 0 - число эпиков на весь набор
+    private final int epicSpec;
+
+    DataShape(int epicSpec) {
+        this.epicSpec = epicSpec;
+    }
+
+    public static LocalDateTime slot(long index) {
+        return START.plus(STEP.multipliedBy(index));
+    }
+
+    public int subtasksPerEpic(int size) {
+        if (epicSpec > 0) {
+            return epicSpec;
+        }
+        if (epicSpec < 0) {
+            return Math.max(1, size / -epicSpec);
+        }
+        return 0;
+    }
+
+    public void populate(TaskManager taskManager, int size) {
+        int perEpic = subtasksPerEpic(size);
+        if (perEpic == 0) {
+            for (int i = 0; i < size; i++) {
+                taskManager.addTask(task(i));
+            }
+            return;
+        }
+        int index = 0;
+        while (index < size) {
+            Epic epic = taskManager.addEpic(new Epic("Epic " + index, "Benchmark epic"));
+            for (int i = 0; i < perEpic && index < size; i++, index++) {
+                taskManager.addSubtask(subtask(index, epic.getId()));
+            }
+        }
+    }
+
+    public static Task task(long index) {
+        return new Task(0, "Task " + index, "Benchmark task", TaskStatus.NEW, slot(index), DURATION);
+    }
+
+    public static Subtask subtask(long index, int epicID) {
+        return new Subtask(0, "Subtask " + index, "Benchmark subtask", TaskStatus.NEW, epicID,
+                slot(index), DURATION);
+    }
+}
@@ -0,0 +1,71 @@
+package benchmarks;
+
+import enums.TaskStatus;
+import managers.FileBackedTaskManager;
+import org.openjdk.jmh.annotations.*;
+import tasks.Task;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Каждое изменение в режиме SNAPSHOT с SYNC перезаписывает файл целиком, поэтому
+// updateTask измеряет стоимость сохранения, а load - чтение того же файла в новый менеджер
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class FileBackedTaskManagerBenchmark {
+    @Param({"1000", "100000"})
+    private int size;
+
+    @Param({"TASKS_ONLY", "MANY_SMALL_EPICS", "FEW_HUGE_EPICS"})
+    private DataShape shape;
+
+    @Param({"CSV", "BINARY"})
+    private String format;
+
+    private File file;
+    private FileBackedTaskManager taskManager;
+    private List<Task> tasks;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        File csvFile = File.createTempFile("benchmark", ".csv");
+        shape.populate(FileBackedTaskManager.loadFromFile(csvFile), size);
+        if (format.equals("BINARY")) {
+            file = File.createTempFile("benchmark", ".bin");
+            FileBackedTaskManager.convertToBinary(csvFile, file);
+            csvFile.delete();
+        } else {
+            file = csvFile;
+        }
+        taskManager = FileBackedTaskManager.loadFromFile(file);
+        tasks = taskManager.getListOfTasks();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        taskManager.close();
+        file.delete();
+    }
+
+    @Benchmark
+    public Task save() {
+        if (tasks.isEmpty()) {
+            return taskManager.updateEpic(taskManager.getListOfEpics().getFirst());
+        }
+        Task task = tasks.get(ThreadLocalRandom.current().nextInt(tasks.size()));
+        return taskManager.updateTask(new Task(task.getId(), task.getTaskName(), task.getTaskDescription(),
+                TaskStatus.IN_PROGRESS, task.getStartTime(), task.getDuration()));
+    }
+
+    @Benchmark
+    public FileBackedTaskManager load() {
+        return FileBackedTaskManager.loadFromFile(file);
+    }
+}
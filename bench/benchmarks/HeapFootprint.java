@@ -0,0 +1,62 @@
+package benchmarks;
+
+import enums.StoreMode;
+import managers.Managers;
+import managers.TaskManager;
+import tasks.Task;
+import utilities.ColumnarTaskStore;
+import utilities.IntHashMap;
+import utilities.IntMap;
+import utilities.OffHeapTaskStore;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+
+// Занятая куча на задачу для менеджера целиком или только для хранилища задач данного режима.
+// JMH не измеряет удерживаемую память, поэтому это обычная программа. Каждое измерение - отдельный запуск,
+// чтобы мусор прошлых измерений не искажал результат.
+// Запуск: HeapFootprint manager|store OBJECTS|COLUMNAR|OFF_HEAP [число задач] с -XX:+UseSerialGC
+public class HeapFootprint {
+    private static final int DEFAULT_SIZE = 200_000;
+
+    public static void main(String[] args) {
+        boolean storeOnly = args[0].equals("store");
+        StoreMode mode = StoreMode.valueOf(args[1]);
+        int size = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_SIZE;
+
+        long before = usedHeap();
+        Object retained = storeOnly ? fill(store(mode), size) : populate(Managers.getDefault(mode), size);
+        long after = usedHeap();
+        Reference.reachabilityFence(retained);
+        System.out.printf("%s %s: %d байт на задачу%n", args[0], mode, (after - before) / size);
+    }
+
+    private static IntMap<Task> store(StoreMode mode) {
+        return switch (mode) {
+            case OBJECTS -> new IntHashMap<>();
+            case COLUMNAR -> new ColumnarTaskStore<>();
+            case OFF_HEAP -> new OffHeapTaskStore<>();
+        };
+    }
+
+    private static TaskManager populate(TaskManager taskManager, int size) {
+        DataShape.TASKS_ONLY.populate(taskManager, size);
+        return taskManager;
+    }
+
+    private static IntMap<Task> fill(IntMap<Task> store, int size) {
+        for (int i = 0; i < size; i++) {
+            Task task = DataShape.task(i);
+            task.setId(i + 1);
+            store.put(task.getId(), task);
+        }
+        return store;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
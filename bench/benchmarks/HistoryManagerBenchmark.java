@@ -0,0 +1,59 @@
+package benchmarks;
+
+import managers.HistoryManager;
+import managers.Managers;
+import org.openjdk.jmh.annotations.*;
+import tasks.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class HistoryManagerBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private HistoryManager historyManager;
+    private List<Task> viewed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        historyManager = Managers.getDefaultHistory();
+        viewed = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Task task = DataShape.task(i);
+            task.setId(i + 1);
+            viewed.add(task);
+            historyManager.add(task);
+        }
+    }
+
+    private Task randomViewed() {
+        return viewed.get(ThreadLocalRandom.current().nextInt(size));
+    }
+
+    // Повторный просмотр переносит задачу в конец истории
+    @Benchmark
+    public void add() {
+        historyManager.add(randomViewed());
+    }
+
+    @Benchmark
+    public void removeAndAdd() {
+        Task task = randomViewed();
+        historyManager.remove(task.getId());
+        historyManager.add(task);
+    }
+
+    @Benchmark
+    public List<Task> getHistory() {
+        return historyManager.getHistory();
+    }
+}
@@ -0,0 +1,93 @@
+package benchmarks;
+
+import enums.TaskStatus;
+import exceptions.TimeIntersectionException;
+import managers.InMemoryTaskManager;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import tasks.Epic;
+import tasks.Subtask;
+import tasks.Task;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class InMemoryTaskManagerBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    @Param({"TASKS_ONLY", "MANY_SMALL_EPICS", "FEW_HUGE_EPICS"})
+    private DataShape shape;
+
+    private InMemoryTaskManager taskManager;
+    private List<Task> scheduled;
+    private List<Epic> epics;
+    private long nextSlot;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        taskManager = new InMemoryTaskManager();
+        shape.populate(taskManager, size);
+        scheduled = List.copyOf(taskManager.getPrioritizedTasks());
+        epics = taskManager.getListOfEpics();
+        nextSlot = size;
+    }
+
+    private Task randomScheduled() {
+        return scheduled.get(ThreadLocalRandom.current().nextInt(scheduled.size()));
+    }
+
+    // Добавление в конец расписания и удаление той же задачи держат размер менеджера постоянным
+    @Benchmark
+    public void addAndRemoveTask() {
+        Task task = taskManager.addTask(DataShape.task(nextSlot++));
+        taskManager.removeTask(task.getId());
+    }
+
+    @Benchmark
+    public Task updateTask() {
+        Task task = randomScheduled();
+        if (task instanceof Subtask subtask) {
+            return taskManager.updateSubtask(new Subtask(subtask.getId(), subtask.getTaskName(),
+                    subtask.getTaskDescription(), TaskStatus.IN_PROGRESS, subtask.getEpicID(),
+                    subtask.getStartTime(), subtask.getDuration()));
+        }
+        return taskManager.updateTask(new Task(task.getId(), task.getTaskName(), task.getTaskDescription(),
+                TaskStatus.IN_PROGRESS, task.getStartTime(), task.getDuration()));
+    }
+
+    @Benchmark
+    public boolean conflictCheck() {
+        Task task = randomScheduled();
+        try {
+            taskManager.addTask(new Task(0, "Conflict", "Benchmark conflict", TaskStatus.NEW,
+                    task.getStartTime().plusMinutes(1), DataShape.DURATION));
+            return false;
+        } catch (TimeIntersectionException e) {
+            return true;
+        }
+    }
+
+    @Benchmark
+    public void iteratePrioritizedTasks(Blackhole blackhole) {
+        for (Task task : taskManager.getPrioritizedTasks()) {
+            blackhole.consume(task);
+        }
+    }
+
+    @Benchmark
+    public Epic recalculateEpic() {
+        if (epics.isEmpty()) {
+            return null;
+        }
+        Epic epic = epics.get(ThreadLocalRandom.current().nextInt(epics.size()));
+        return taskManager.updateEpic(epic);
+    }
+}
@@ -0,0 +1,7 @@
+package enums;
+
+public enum ChangeType {
+    ADDED,
+    UPDATED,
+    REMOVED
+}
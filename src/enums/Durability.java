@@ -0,0 +1,8 @@
+package enums;
+
+public enum Durability {
+    SYNC,
+    FSYNC,
+    BATCHED,
+    ASYNC
+}
@@ -6,6 +6,7 @@ public enum Endpoint {
     GET_SUBLIST_BY_ID,
     POST_ADD,
     POST_UPDATE,
+    POST_BATCH,
     DELETE_ALL,
     DELETE_BY_ID,
     UNKNOWN
@@ -0,0 +1,7 @@
+package enums;
+
+public enum EvictionPolicy {
+    LRU,
+    LFU,
+    TIME_WINDOW
+}
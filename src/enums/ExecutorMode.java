@@ -0,0 +1,7 @@
+package enums;
+
+public enum ExecutorMode {
+    DISPATCHER,
+    VIRTUAL_THREADS,
+    BOUNDED_POOL
+}
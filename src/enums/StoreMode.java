@@ -0,0 +1,7 @@
+package enums;
+
+public enum StoreMode {
+    OBJECTS,
+    COLUMNAR,
+    OFF_HEAP
+}
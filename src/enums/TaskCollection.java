@@ -0,0 +1,9 @@
+package enums;
+
+public enum TaskCollection {
+    TASKS,
+    SUBTASKS,
+    EPICS,
+    PRIORITIZED,
+    HISTORY
+}
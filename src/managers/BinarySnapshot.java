@@ -0,0 +1,170 @@
+package managers;
+
+import enums.TaskStatus;
+import enums.TaskType;
+import exceptions.ManagerSaveException;
+import tasks.Epic;
+import tasks.Subtask;
+import tasks.Task;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Формат: заголовок (сигнатура, версия, число записей, число строк), записи фиксированной длины
+// и таблица строк без повторов. Время хранится в минутах от эпохи. Задача из JSON может прийти
+// без полей, поэтому null записывается отдельным значением и при загрузке заменяется умолчанием Task.
+// Снимок читается целиком в буфер в куче, а не отображается в память: отображённый файл
+// нельзя атомарно заменить новым снимком на Windows, пока буфер не собран сборщиком мусора
+final class BinarySnapshot {
+    static final int MAGIC = 0x4B4E424E;
+    static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int RECORD_SIZE = 32;
+    private static final int NULL_INDEX = -1;
+    private static final byte NULL_STATUS = -1;
+    private static final long NULL_TIME = Long.MIN_VALUE;
+    private static final int NULL_DURATION = Integer.MIN_VALUE;
+
+    private BinarySnapshot() {
+    }
+
+    static boolean isBinary(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES);
+            while (magic.hasRemaining()) {
+                if (channel.read(magic) == -1) {
+                    return false;
+                }
+            }
+            return magic.getInt(0) == MAGIC;
+        }
+    }
+
+    static byte[] encode(List<Task> tasks) {
+        StringTable strings = new StringTable();
+        int[] nameIndexes = new int[tasks.size()];
+        int[] descriptionIndexes = new int[tasks.size()];
+        for (int i = 0; i < tasks.size(); i++) {
+            nameIndexes[i] = strings.indexOf(tasks.get(i).getTaskName());
+            descriptionIndexes[i] = strings.indexOf(tasks.get(i).getTaskDescription());
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + tasks.size() * RECORD_SIZE + strings.size);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(tasks.size()).putInt(strings.values.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            LocalDateTime startTime = task.getStartTime();
+            long startMinutes = startTime != null
+                    ? Math.floorDiv(startTime.toEpochSecond(ZoneOffset.UTC), 60) : NULL_TIME;
+            Duration duration = task.getDuration();
+            buffer.putInt(task.getId())
+                    .put((byte) task.getType().ordinal())
+                    .put(task.getStatus() != null ? (byte) task.getStatus().ordinal() : NULL_STATUS)
+                    .putShort((short) 0)
+                    .putInt(nameIndexes[i])
+                    .putInt(descriptionIndexes[i])
+                    .putLong(startMinutes)
+                    .putInt(duration != null ? (int) duration.toMinutes() : NULL_DURATION)
+                    .putInt(task instanceof Subtask subtask ? subtask.getEpicID() : 0);
+        }
+        for (byte[] bytes : strings.values) {
+            buffer.putInt(bytes.length).put(bytes);
+        }
+        return buffer.array();
+    }
+
+    static List<Task> read(Path path) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new ManagerSaveException("Бинарный снимок слишком велик: " + size + " байт");
+            }
+            buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) != -1) {
+                // читаем до конца файла
+            }
+            buffer.flip();
+        }
+        if (buffer.getInt() != MAGIC) {
+            throw new ManagerSaveException("Файл не является бинарным снимком");
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new ManagerSaveException("Неподдерживаемая версия бинарного снимка: " + version);
+        }
+        int recordCount = buffer.getInt();
+        int stringCount = buffer.getInt();
+
+        String[] strings = new String[stringCount];
+        buffer.position(HEADER_SIZE + recordCount * RECORD_SIZE);
+        for (int i = 0; i < stringCount; i++) {
+            byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        TaskType[] types = TaskType.values();
+        TaskStatus[] statuses = TaskStatus.values();
+        List<Task> tasks = new ArrayList<>(recordCount);
+        buffer.position(HEADER_SIZE);
+        for (int i = 0; i < recordCount; i++) {
+            int id = buffer.getInt();
+            TaskType type = types[buffer.get()];
+            byte statusOrdinal = buffer.get();
+            TaskStatus status = statusOrdinal != NULL_STATUS ? statuses[statusOrdinal] : null;
+            buffer.getShort();
+            String name = stringAt(strings, buffer.getInt());
+            String description = stringAt(strings, buffer.getInt());
+            long startMinutes = buffer.getLong();
+            LocalDateTime startTime = startMinutes != NULL_TIME
+                    ? LocalDateTime.ofEpochSecond(startMinutes * 60, 0, ZoneOffset.UTC) : null;
+            int durationMinutes = buffer.getInt();
+            Duration duration = durationMinutes != NULL_DURATION ? Duration.ofMinutes(durationMinutes) : null;
+            int epicID = buffer.getInt();
+
+            tasks.add(switch (type) {
+                case TASK -> new Task(id, name, description, status, startTime, duration);
+                case EPIC -> new Epic(id, name, description, status);
+                case SUBTASK -> new Subtask(id, name, description, status, epicID, startTime, duration);
+            });
+        }
+        return tasks;
+    }
+
+    private static String stringAt(String[] strings, int index) {
+        return index != NULL_INDEX ? strings[index] : null;
+    }
+
+    private static class StringTable {
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final List<byte[]> values = new ArrayList<>();
+        private int size;
+
+        int indexOf(String value) {
+            if (value == null) {
+                return NULL_INDEX;
+            }
+            Integer index = indexes.get(value);
+            if (index == null) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                index = values.size();
+                indexes.put(value, index);
+                values.add(bytes);
+                size += Integer.BYTES + bytes.length;
+            }
+            return index;
+        }
+    }
+}
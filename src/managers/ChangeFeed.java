@@ -0,0 +1,70 @@
+package managers;
+
+import enums.ChangeType;
+import enums.TaskType;
+import exceptions.ChangesExpiredException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Последние изменения менеджера в кольцевом буфере с порядковыми номерами начиная с 1.
+// Клиент передаёт номер последнего полученного изменения и получает следующие за ним
+public class ChangeFeed implements TaskChangeListener {
+    private final Change[] buffer;
+    private long lastSequence;
+    private boolean closed;
+
+    public ChangeFeed(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Размер ленты изменений должен быть больше нуля");
+        }
+        this.buffer = new Change[capacity];
+    }
+
+    @Override
+    public synchronized void onChange(ChangeType change, TaskType type, int id) {
+        lastSequence++;
+        buffer[(int) (lastSequence % buffer.length)] = new Change(lastSequence, change, type, id);
+        notifyAll();
+    }
+
+    public synchronized long getLastSequence() {
+        return lastSequence;
+    }
+
+    // Изменения с номерами больше since, не более limit. Если часть из них уже вытеснена из буфера
+    // или номер из будущего (например, после перезапуска), клиенту нужно заново загрузить списки
+    public synchronized List<Change> since(long since, int limit) {
+        long oldest = Math.max(1, lastSequence - buffer.length + 1);
+        if (since < oldest - 1 || since > lastSequence) {
+            throw new ChangesExpiredException("Изменения после " + since + " недоступны, доступны с " + oldest);
+        }
+        List<Change> changes = new ArrayList<>((int) Math.min(limit, lastSequence - since));
+        for (long sequence = since + 1; sequence <= lastSequence && changes.size() < limit; sequence++) {
+            changes.add(buffer[(int) (sequence % buffer.length)]);
+        }
+        return changes;
+    }
+
+    // Длинный опрос: ждёт первого изменения после since не дольше timeout или до закрытия ленты
+    public synchronized List<Change> await(long since, int limit, long timeout, TimeUnit unit)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        long remaining = unit.toNanos(timeout);
+        while (lastSequence == since && remaining > 0 && !closed) {
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            remaining = deadline - System.nanoTime();
+        }
+        return since(since, limit);
+    }
+
+    // Будит ждущие запросы и больше не даёт ждать: остановка сервера не ждёт окончания длинных опросов
+    public synchronized void close() {
+        closed = true;
+        notifyAll();
+    }
+
+    public record Change(long sequence, ChangeType change, TaskType type, int id) {
+    }
+}
@@ -0,0 +1,243 @@
+package managers;
+
+import tasks.Epic;
+import tasks.Subtask;
+import tasks.Task;
+import utilities.ConcurrentIntMap;
+import utilities.IntervalIndex;
+
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Чтение идёт без блокировок по конкурентным коллекциям. Изменения эпика и его подзадач
+// сериализуются блокировкой эпика (по полосам), а проверка пересечений вместе со вставкой
+// в список приоритетов - общей блокировкой расписания. Порядок захвата: эпик, затем расписание.
+// Эпик меняется на месте, поэтому наружу отдаётся его копия, снятая под блокировкой эпика
+public class ConcurrentTaskManager extends InMemoryTaskManager {
+    private static final int EPIC_LOCK_STRIPES = 64;
+
+    private final Lock scheduleLock = new ReentrantLock();
+    private final Lock[] epicLocks = new Lock[EPIC_LOCK_STRIPES];
+
+    public ConcurrentTaskManager() {
+        this(Managers.getDefaultHistory());
+    }
+
+    // История не потокобезопасна сама по себе и оборачивается в SynchronizedHistoryManager
+    public ConcurrentTaskManager(HistoryManager historyManager) {
+        super(new ConcurrentIntMap<>(), new ConcurrentIntMap<>(), new ConcurrentIntMap<>(),
+                IntervalIndex.concurrent(), historyManager instanceof SynchronizedHistoryManager
+                        ? historyManager : new SynchronizedHistoryManager(historyManager));
+        for (int i = 0; i < EPIC_LOCK_STRIPES; i++) {
+            epicLocks[i] = new ReentrantLock();
+        }
+    }
+
+    private Lock epicLock(int epicID) {
+        return epicLocks[Math.floorMod(epicID, EPIC_LOCK_STRIPES)];
+    }
+
+    private int epicIDOf(int subtaskID) {
+        Subtask subtask = subtasks.get(subtaskID);
+        return subtask != null ? subtask.getEpicID() : 0;
+    }
+
+    // Эпик подзадачи читается до захвата блокировки, поэтому после захвата он проверяется ещё раз:
+    // если подзадачу за это время заменили или удалили, блокировка берётся заново
+    private Lock lockEpicOf(int subtaskID) {
+        while (true) {
+            int epicID = epicIDOf(subtaskID);
+            Lock epicLock = epicLock(epicID);
+            epicLock.lock();
+            if (epicIDOf(subtaskID) == epicID) {
+                return epicLock;
+            }
+            epicLock.unlock();
+        }
+    }
+
+    private void lockAll() {
+        for (Lock lock : epicLocks) {
+            lock.lock();
+        }
+        scheduleLock.lock();
+    }
+
+    private void unlockAll() {
+        scheduleLock.unlock();
+        for (int i = EPIC_LOCK_STRIPES - 1; i >= 0; i--) {
+            epicLocks[i].unlock();
+        }
+    }
+
+    @Override
+    public Task addTask(Task task) {
+        scheduleLock.lock();
+        try {
+            return super.addTask(task);
+        } finally {
+            scheduleLock.unlock();
+        }
+    }
+
+    @Override
+    public Epic addEpic(Epic epic) {
+        int id = nextID.getAndIncrement();
+        Lock epicLock = epicLock(id);
+        epicLock.lock();
+        try {
+            return addEpic(id, epic);
+        } finally {
+            epicLock.unlock();
+        }
+    }
+
+    @Override
+    public Subtask addSubtask(Subtask subtask) {
+        Lock epicLock = epicLock(subtask.getEpicID());
+        epicLock.lock();
+        scheduleLock.lock();
+        try {
+            return super.addSubtask(subtask);
+        } finally {
+            scheduleLock.unlock();
+            epicLock.unlock();
+        }
+    }
+
+    // Пакет может затрагивать любые эпики, поэтому берутся все блокировки
+    @Override
+    public <T extends Task> List<T> addAll(List<T> tasks, boolean allOrNothing) {
+        lockAll();
+        try {
+            return super.addAll(tasks, allOrNothing);
+        } finally {
+            unlockAll();
+        }
+    }
+
+    @Override
+    public Task updateTask(Task task) {
+        scheduleLock.lock();
+        try {
+            return super.updateTask(task);
+        } finally {
+            scheduleLock.unlock();
+        }
+    }
+
+    @Override
+    public Subtask updateSubtask(Subtask subtask) {
+        Lock epicLock = lockEpicOf(subtask.getId());
+        scheduleLock.lock();
+        try {
+            return super.updateSubtask(subtask);
+        } finally {
+            scheduleLock.unlock();
+            epicLock.unlock();
+        }
+    }
+
+    @Override
+    public Epic updateEpic(Epic epic) {
+        Lock epicLock = epicLock(epic.getId());
+        epicLock.lock();
+        try {
+            return super.updateEpic(epic);
+        } finally {
+            epicLock.unlock();
+        }
+    }
+
+    @Override
+    public void removeTask(int id) {
+        scheduleLock.lock();
+        try {
+            super.removeTask(id);
+        } finally {
+            scheduleLock.unlock();
+        }
+    }
+
+    @Override
+    public void removeSubtask(int id) {
+        Lock epicLock = lockEpicOf(id);
+        scheduleLock.lock();
+        try {
+            super.removeSubtask(id);
+        } finally {
+            scheduleLock.unlock();
+            epicLock.unlock();
+        }
+    }
+
+    @Override
+    public void removeEpic(int id) {
+        Lock epicLock = epicLock(id);
+        epicLock.lock();
+        scheduleLock.lock();
+        try {
+            super.removeEpic(id);
+        } finally {
+            scheduleLock.unlock();
+            epicLock.unlock();
+        }
+    }
+
+    // Множество id подзадач эпика не потокобезопасно, поэтому читается под блокировкой эпика
+    @Override
+    public List<Subtask> getSubtasksByEpicID(int id) {
+        Lock epicLock = epicLock(id);
+        epicLock.lock();
+        try {
+            return super.getSubtasksByEpicID(id);
+        } finally {
+            epicLock.unlock();
+        }
+    }
+
+    @Override
+    protected Epic published(Epic epic) {
+        if (epic == null) {
+            return null;
+        }
+        Lock epicLock = epicLock(epic.getId());
+        epicLock.lock();
+        try {
+            return new Epic(epic);
+        } finally {
+            epicLock.unlock();
+        }
+    }
+
+    @Override
+    public void removeAllTasks() {
+        scheduleLock.lock();
+        try {
+            super.removeAllTasks();
+        } finally {
+            scheduleLock.unlock();
+        }
+    }
+
+    @Override
+    public void removeAllSubtasks() {
+        lockAll();
+        try {
+            super.removeAllSubtasks();
+        } finally {
+            unlockAll();
+        }
+    }
+
+    @Override
+    public void removeAllEpics() {
+        lockAll();
+        try {
+            super.removeAllEpics();
+        } finally {
+            unlockAll();
+        }
+    }
+}
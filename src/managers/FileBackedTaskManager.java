@@ -1,5 +1,7 @@
 package managers;
 
+import enums.Durability;
+import enums.PersistenceMode;
 import enums.TaskStatus;
 import enums.TaskType;
 import exceptions.ManagerSaveException;
@@ -8,20 +10,100 @@ import tasks.Epic;
 import tasks.Subtask;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class FileBackedTaskManager extends InMemoryTaskManager {
+    private static final String HEADER = "id,type,name,status,description,epicID";
+    private static final long DEFAULT_FLUSH_INTERVAL_MS = 50;
+    private static final int DEFAULT_FLUSH_AFTER_MUTATIONS = 1000;
+    private static final int COMPACTION_THRESHOLD = 10_000;
+
     private final File file;
+    private final PersistenceMode mode;
+    private final Durability durability;
+    private final long flushIntervalMillis;
+    private final int flushAfterMutations;
+    private final Path journalPath;
+    private final Path compactingJournalPath;
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private volatile FileChannel journal;
+    private volatile boolean hasUnsyncedRecords;
+    private int journalRecords;
+    private boolean binaryFormat;
+    private boolean dirty;
+    private int pendingMutations;
+    private ScheduledExecutorService writerExecutor;
+    private Thread shutdownHook;
 
-    private FileBackedTaskManager(File file) {
+    private FileBackedTaskManager(File file, PersistenceMode mode, Durability durability,
+                                  long flushIntervalMillis, int flushAfterMutations) {
         this.file = file;
+        this.mode = mode;
+        this.durability = durability;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.flushAfterMutations = flushAfterMutations;
+        this.journalPath = Path.of(file.getPath() + ".journal");
+        this.compactingJournalPath = Path.of(file.getPath() + ".journal.compacting");
     }
 
     public static FileBackedTaskManager loadFromFile(File file) {
-        FileBackedTaskManager fileBackedTaskManager = new FileBackedTaskManager(file);
+        return loadFromFile(file, PersistenceMode.SNAPSHOT);
+    }
+
+    public static FileBackedTaskManager loadFromFile(File file, PersistenceMode mode) {
+        return loadFromFile(file, mode, mode == PersistenceMode.JOURNAL ? Durability.BATCHED : Durability.SYNC);
+    }
+
+    public static FileBackedTaskManager loadFromFile(File file, PersistenceMode mode, Durability durability) {
+        return loadFromFile(file, mode, durability, DEFAULT_FLUSH_INTERVAL_MS, DEFAULT_FLUSH_AFTER_MUTATIONS);
+    }
+
+    // SYNC сохраняет каждое изменение сразу, но без fsync, как и раньше. FSYNC дополнительно дожидается
+    // записи каждого изменения на диск. BATCHED пишет раз в интервал или после flushAfterMutations изменений,
+    // ASYNC - только раз в интервал. Фоновую запись выполняет один поток
+    public static FileBackedTaskManager loadFromFile(File file, PersistenceMode mode, Durability durability,
+                                                     long flushIntervalMillis, int flushAfterMutations) {
+        FileBackedTaskManager fileBackedTaskManager = new FileBackedTaskManager(file, mode, durability,
+                flushIntervalMillis, flushAfterMutations);
         fileBackedTaskManager.read();
+        if (mode == PersistenceMode.JOURNAL) {
+            fileBackedTaskManager.openJournal();
+        }
+        if (mode == PersistenceMode.JOURNAL || !fileBackedTaskManager.writesThrough()) {
+            fileBackedTaskManager.startWriter();
+        }
         return fileBackedTaskManager;
     }
 
+    // Конвертирует CSV-файл в бинарный снимок, который затем загружается через loadFromFile автоматически
+    public static void convertToBinary(File csvFile, File binaryFile) {
+        FileBackedTaskManager csvManager = loadFromFile(csvFile);
+        FileBackedTaskManager binaryManager = new FileBackedTaskManager(binaryFile, PersistenceMode.SNAPSHOT,
+                Durability.SYNC, DEFAULT_FLUSH_INTERVAL_MS, DEFAULT_FLUSH_AFTER_MUTATIONS);
+        binaryManager.binaryFormat = true;
+        binaryManager.tasks.putAll(csvManager.tasks);
+        binaryManager.epics.putAll(csvManager.epics);
+        binaryManager.subtasks.putAll(csvManager.subtasks);
+        binaryManager.save();
+    }
+
     private static Task fromString(String value) {
         String[] taskData = value.split(",");
         TaskType taskType = TaskType.valueOf(taskData[1]);
@@ -40,124 +122,539 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
     }
 
     private void read() {
+        try {
+            binaryFormat = BinarySnapshot.isBinary(file.toPath());
+        } catch (IOException | InvalidPathException e) {
+            throw  new ManagerSaveException("Ошибка чтения файла");
+        }
+        if (binaryFormat) {
+            readBinary();
+        } else {
+            readCsv();
+        }
+        if (mode == PersistenceMode.JOURNAL) {
+            replay(compactingJournalPath);
+            replay(journalPath);
+        }
+        restoreState();
+    }
+
+    private void readCsv() {
         String line;
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+        try (BufferedReader br = new BufferedReader(new FileReader(file, StandardCharsets.UTF_8))) {
             br.readLine();
             while (br.ready()) {
                 line  = br.readLine();
-                Task task = fromString(line);
-
-                switch (task.getType()) {
-                    case TASK:
-                        tasks.put(task.getId(), task);
-                        prioritizedTasks.add(task);
-                        break;
-                    case EPIC:
-                        epics.put(task.getId(), (Epic) task);
-                        break;
-                    case SUBTASK:
-                        subtasks.put(task.getId(), (Subtask) task);
-                        prioritizedTasks.add(task);
-                        break;
-                }
+                putRestored(fromString(line));
             }
         } catch (IOException e) {
             throw  new ManagerSaveException("Ошибка чтения файла");
         }
     }
 
-    private void save() {
-        try (Writer fileWriter = new FileWriter(file)) {
-            fileWriter.write("id,type,name,status,description,epicID\n");
-            for (Task task : super.getListOfTasks()) {
-                fileWriter.write(task.toString() + "\n");
+    private void readBinary() {
+        try {
+            for (Task task : BinarySnapshot.read(file.toPath())) {
+                putRestored(task);
             }
-            for (Epic epic : super.getListOfEpics()) {
-                fileWriter.write(epic.toString() + "\n");
+        } catch (IOException | RuntimeException e) {
+            throw  new ManagerSaveException("Ошибка чтения бинарного снимка");
+        }
+    }
+
+    private void putRestored(Task task) {
+        switch (task.getType()) {
+            case TASK -> tasks.put(task.getId(), task);
+            case EPIC -> epics.put(task.getId(), (Epic) task);
+            case SUBTASK -> subtasks.put(task.getId(), (Subtask) task);
+        }
+    }
+
+    // Журнал дописывается построчно, поэтому при сбое может оборваться только последняя запись.
+    // Применяются лишь записи, завершённые переводом строки: оборванный хвост может и разобраться,
+    // но уже как другая запись (REMOVE,123 -> REMOVE,12). Воспроизведение останавливается
+    // на первой нечитаемой строке
+    private void replay(Path path) {
+        if (!Files.exists(path)) {
+            return;
+        }
+        byte[] content;
+        try {
+            content = Files.readAllBytes(path);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка чтения журнала");
+        }
+        int end = content.length;
+        while (end > 0 && content[end - 1] != '\n') {
+            end--;
+        }
+        if (end == 0) {
+            return;
+        }
+        for (String record : new String(content, 0, end - 1, StandardCharsets.UTF_8).split("\n")) {
+            try {
+                applyRecord(record);
+            } catch (RuntimeException e) {
+                break;
             }
-            for (Subtask subtask : super.getListOfSubtasks()) {
-                fileWriter.write(subtask.toString() + "\n");
+        }
+    }
+
+    private void applyRecord(String record) {
+        String[] recordData = record.split(",", 2);
+        switch (recordData[0]) {
+            case "PUT" -> putRestored(fromString(recordData[1]));
+            case "REMOVE" -> {
+                int id = Integer.parseInt(recordData[1]);
+                tasks.remove(id);
+                subtasks.remove(id);
+                epics.remove(id);
             }
+            case "CLEAR" -> {
+                switch (TaskType.valueOf(recordData[1])) {
+                    case TASK -> tasks.clear();
+                    case SUBTASK -> subtasks.clear();
+                    case EPIC -> {
+                        subtasks.clear();
+                        epics.clear();
+                    }
+                }
+            }
+            default -> throw new ManagerSaveException("Неизвестная запись журнала: " + record);
+        }
+    }
+
+    // Производные структуры (список приоритетов, подзадачи эпиков, счётчик id) не хранятся в файле
+    // и строятся один раз после загрузки
+    private void restoreState() {
+        int maxID = 0;
+        prioritizedTasks.clear();
+        for (Task task : tasks.values()) {
+            prioritizedTasks.add(task);
+            maxID = Math.max(maxID, task.getId());
+        }
+        for (Epic epic : epics.values()) {
+            epic.clearSubtasks();
+            maxID = Math.max(maxID, epic.getId());
+        }
+        List<Subtask> sortedSubtasks = new ArrayList<>(subtasks.values());
+        sortedSubtasks.sort(Comparator.comparingInt(Task::getId));
+        for (Subtask subtask : sortedSubtasks) {
+            prioritizedTasks.add(subtask);
+            Epic epic = epics.get(subtask.getEpicID());
+            if (epic != null) {
+                epic.addSubtask(subtask);
+            }
+            maxID = Math.max(maxID, subtask.getId());
+        }
+        nextID.set(maxID + 1);
+        rebuildQueryIndex();
+    }
+
+    private byte[] encodeSnapshot() {
+        List<Task> allTasks = new ArrayList<>(tasks.size() + epics.size() + subtasks.size());
+        allTasks.addAll(super.getListOfTasks());
+        allTasks.addAll(super.getListOfEpics());
+        allTasks.addAll(super.getListOfSubtasks());
+        if (binaryFormat) {
+            return BinarySnapshot.encode(allTasks);
+        }
+        StringBuilder content = new StringBuilder(HEADER).append('\n');
+        for (Task task : allTasks) {
+            content.append(task).append('\n');
+        }
+        return content.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Снимок пишется во временный файл и атомарно подменяет старый, так что при сбое на диске остаётся
+    // либо старая, либо новая версия целиком. Перед удалением журнала и в фоновой записи снимок
+    // фиксируется fsync, а запись каждого изменения при SYNC - нет
+    private void writeSnapshot(byte[] content, boolean sync) throws IOException {
+        Path tmpPath = Path.of(file.getPath() + ".tmp");
+        try (FileOutputStream outputStream = new FileOutputStream(tmpPath.toFile())) {
+            outputStream.write(content);
+            if (sync) {
+                outputStream.getFD().sync();
+            }
+        }
+        Files.move(tmpPath, file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void save() {
+        try {
+            writeSnapshot(encodeSnapshot(), durability == Durability.FSYNC);
         } catch (IOException e) {
             throw  new ManagerSaveException("Ошибка записи файла");
         }
     }
 
+    private void openJournal() {
+        try {
+            if (Files.exists(compactingJournalPath) || Files.exists(journalPath)) {
+                writeSnapshot(encodeSnapshot(), true);
+                Files.deleteIfExists(compactingJournalPath);
+                Files.deleteIfExists(journalPath);
+            }
+            journal = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка открытия журнала");
+        }
+    }
+
+    private void startWriter() {
+        writerExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "file-backed-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (!writesThrough()) {
+            Runnable periodicFlush = mode == PersistenceMode.JOURNAL ? this::syncJournal : this::writeDirtySnapshot;
+            writerExecutor.scheduleWithFixedDelay(periodicFlush,
+                    flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+        shutdownHook = new Thread(this::flush, "file-backed-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    private boolean writesThrough() {
+        return durability == Durability.SYNC || durability == Durability.FSYNC;
+    }
+
+    private void markDirty() {
+        if (writesThrough()) {
+            save();
+            return;
+        }
+        dirty = true;
+        if (durability == Durability.BATCHED && ++pendingMutations >= flushAfterMutations) {
+            pendingMutations = 0;
+            writerExecutor.execute(this::writeDirtySnapshot);
+        }
+    }
+
+    // Состояние кодируется под блокировкой менеджера, а запись файла идёт уже без неё
+    private void writeDirtySnapshot() {
+        byte[] snapshot;
+        synchronized (this) {
+            if (!dirty) {
+                return;
+            }
+            dirty = false;
+            pendingMutations = 0;
+            snapshot = encodeSnapshot();
+        }
+        try {
+            writeSnapshot(snapshot, true);
+        } catch (IOException e) {
+            synchronized (this) {
+                dirty = true;
+            }
+        }
+    }
+
+    // Групповая фиксация: записи попадают в файл сразу, а fsync выполняется фоном не чаще раза в интервал
+    private void syncJournal() {
+        if (!hasUnsyncedRecords) {
+            return;
+        }
+        hasUnsyncedRecords = false;
+        try {
+            journal.force(false);
+        } catch (IOException e) {
+            hasUnsyncedRecords = true;
+        }
+    }
+
+    private void appendToJournal(String record) {
+        appendToJournal(List.of(record));
+    }
+
+    // Пакет записей пишется одним вызовом и при FSYNC фиксируется одним fsync
+    private void appendToJournal(List<String> records) {
+        StringBuilder text = new StringBuilder();
+        for (String record : records) {
+            text.append(record).append('\n');
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8));
+        try {
+            while (buffer.hasRemaining()) {
+                journal.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка записи журнала");
+        }
+        if (durability == Durability.FSYNC) {
+            forceJournal();
+        } else {
+            hasUnsyncedRecords = true;
+            if (durability == Durability.BATCHED && (pendingMutations += records.size()) >= flushAfterMutations) {
+                pendingMutations = 0;
+                writerExecutor.execute(this::syncJournal);
+            }
+        }
+        journalRecords += records.size();
+        if (journalRecords >= COMPACTION_THRESHOLD && compacting.compareAndSet(false, true)) {
+            rotateJournal();
+            writerExecutor.execute(this::compactInBackground);
+        }
+    }
+
+    // Меняющий поток только переключает файл журнала, а снимок собирается и пишется в фоне.
+    // Накопленный журнал откладывается до конца компактизации и при сбое воспроизводится поверх снимка
+    private void rotateJournal() {
+        try {
+            journal.force(false);
+            journal.close();
+            if (Files.exists(compactingJournalPath)) {
+                Files.write(compactingJournalPath, Files.readAllBytes(journalPath), StandardOpenOption.APPEND);
+                Files.delete(journalPath);
+            } else {
+                Files.move(journalPath, compactingJournalPath, StandardCopyOption.ATOMIC_MOVE);
+            }
+            journal = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            compacting.set(false);
+            throw new ManagerSaveException("Ошибка компактизации журнала");
+        }
+        journalRecords = 0;
+    }
+
+    // Снимок берётся позже переключения и уже содержит часть записей нового журнала. Записи журнала
+    // только присваивают или удаляют значения, поэтому их повторное воспроизведение поверх снимка безопасно.
+    // Менеджер блокируется лишь на время кодирования, запись файла идёт без блокировки
+    private void compactInBackground() {
+        byte[] snapshot;
+        synchronized (this) {
+            snapshot = encodeSnapshot();
+        }
+        finishCompaction(snapshot);
+    }
+
+    private void finishCompaction(byte[] snapshot) {
+        try {
+            writeSnapshot(snapshot, true);
+            Files.deleteIfExists(compactingJournalPath);
+        } catch (IOException e) {
+            // Отложенный журнал остаётся на диске и будет дописан к следующей компактизации
+        } finally {
+            compacting.set(false);
+        }
+    }
+
+    public synchronized void compact() {
+        if (mode != PersistenceMode.JOURNAL || !compacting.compareAndSet(false, true)) {
+            return;
+        }
+        rotateJournal();
+        finishCompaction(encodeSnapshot());
+    }
+
+    private void forceJournal() {
+        try {
+            journal.force(false);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка записи журнала");
+        }
+    }
+
+    // Дожидается записи всех накопленных изменений на диск. После close() ничего не делает.
+    // Журнал фиксируется под блокировкой менеджера, чтобы не пересечься с его подменой при компактизации
     @Override
-    public Task addTask(Task task) {
+    public void flush() {
+        if (closed.get()) {
+            return;
+        }
+        if (mode == PersistenceMode.JOURNAL) {
+            synchronized (this) {
+                if (!closed.get()) {
+                    hasUnsyncedRecords = false;
+                    forceJournal();
+                }
+            }
+        } else if (!writesThrough()) {
+            try {
+                writerExecutor.submit(this::writeDirtySnapshot).get();
+            } catch (RejectedExecutionException e) {
+                // Менеджер уже закрывается, и close() сам запишет последний снимок
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                throw new ManagerSaveException("Ошибка записи файла");
+            }
+            checkSaved();
+        }
+    }
+
+    private synchronized void checkSaved() {
+        if (dirty) {
+            throw new ManagerSaveException("Ошибка записи файла");
+        }
+    }
+
+    // Повторный вызов ничего не делает
+    @Override
+    public void close() {
+        if (writerExecutor == null || !closed.compareAndSet(false, true)) {
+            return;
+        }
+        writerExecutor.shutdown();
+        try {
+            writerExecutor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (mode == PersistenceMode.JOURNAL) {
+            synchronized (this) {
+                try {
+                    journal.force(false);
+                    journal.close();
+                } catch (IOException e) {
+                    throw new ManagerSaveException("Ошибка закрытия журнала");
+                }
+            }
+        } else if (!writesThrough()) {
+            writeDirtySnapshot();
+            checkSaved();
+        }
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // JVM уже завершается, хук отработает сам
+        }
+    }
+
+    private void saveTask(Task task) {
+        if (mode == PersistenceMode.JOURNAL) {
+            appendToJournal("PUT," + task);
+        } else {
+            markDirty();
+        }
+    }
+
+    private void saveRemoval(int id) {
+        if (mode == PersistenceMode.JOURNAL) {
+            appendToJournal("REMOVE," + id);
+        } else {
+            markDirty();
+        }
+    }
+
+    private void saveClear(TaskType type) {
+        if (mode == PersistenceMode.JOURNAL) {
+            appendToJournal("CLEAR," + type);
+        } else {
+            markDirty();
+        }
+    }
+
+    @Override
+    public synchronized Task addTask(Task task) {
         Task addedTask = super.addTask(task);
-        save();
+        saveTask(addedTask);
         return addedTask;
     }
 
     @Override
-    public Epic addEpic(Epic epic) {
+    public synchronized Epic addEpic(Epic epic) {
         Epic addedEpic = super.addEpic(epic);
-        save();
+        saveTask(addedEpic);
         return addedEpic;
     }
 
     @Override
-    public Subtask addSubtask(Subtask subtask) {
+    public synchronized Subtask addSubtask(Subtask subtask) {
         Subtask addedSubtask = super.addSubtask(subtask);
-        save();
+        saveTask(addedSubtask);
         return addedSubtask;
     }
 
+    // Весь пакет сохраняется один раз: одной записью в журнал или одной перезаписью снимка
     @Override
-    public Task updateTask(Task task) {
+    public synchronized <T extends Task> List<T> addAll(List<T> tasks, boolean allOrNothing) {
+        List<T> addedTasks = super.addAll(tasks, allOrNothing);
+        if (addedTasks.isEmpty()) {
+            return addedTasks;
+        }
+        if (mode == PersistenceMode.JOURNAL) {
+            List<String> records = new ArrayList<>(addedTasks.size());
+            for (Task task : addedTasks) {
+                records.add("PUT," + task);
+            }
+            appendToJournal(records);
+        } else {
+            markDirty();
+        }
+        return addedTasks;
+    }
+
+    @Override
+    public synchronized Task updateTask(Task task) {
         Task updatedTask = super.updateTask(task);
-        save();
+        saveTask(updatedTask);
         return updatedTask;
     }
 
     @Override
-    public Subtask updateSubtask(Subtask subtask) {
+    public synchronized Subtask updateSubtask(Subtask subtask) {
         Subtask updatedSubtask = super.updateSubtask(subtask);
-        save();
+        saveTask(updatedSubtask);
         return updatedSubtask;
     }
 
     @Override
-    public Epic updateEpic(Epic epic) {
+    public synchronized Epic updateEpic(Epic epic) {
         Epic updatedEpic = super.updateEpic(epic);
-        save();
+        saveTask(updatedEpic);
         return  updatedEpic;
     }
 
     @Override
-    public void removeTask(int id) {
+    public synchronized void removeTask(int id) {
         super.removeTask(id);
-        save();
+        saveRemoval(id);
     }
 
     @Override
-    public void removeSubtask(int id) {
+    public synchronized void removeSubtask(int id) {
         super.removeSubtask(id);
-        save();
+        saveRemoval(id);
     }
 
     @Override
-    public void removeEpic(int id) {
+    public synchronized void removeEpic(int id) {
+        List<Integer> subtaskIDs = epics.containsKey(id) ? epics.get(id).getSubtaskIDs() : List.of();
         super.removeEpic(id);
-        save();
+        if (mode != PersistenceMode.JOURNAL) {
+            markDirty();
+            return;
+        }
+        // Эпик удаляется вместе с подзадачами одной пакетной записью
+        List<String> records = new ArrayList<>(subtaskIDs.size() + 1);
+        for (Integer subtaskID : subtaskIDs) {
+            records.add("REMOVE," + subtaskID);
+        }
+        records.add("REMOVE," + id);
+        appendToJournal(records);
     }
 
     @Override
-    public void removeAllTasks() {
+    public synchronized void removeAllTasks() {
         super.removeAllTasks();
-        save();
+        saveClear(TaskType.TASK);
     }
 
     @Override
-    public void removeAllSubtasks() {
+    public synchronized void removeAllSubtasks() {
         super.removeAllSubtasks();
-        save();
+        saveClear(TaskType.SUBTASK);
     }
 
     @Override
-    public void removeAllEpics() {
+    public synchronized void removeAllEpics() {
         super.removeAllEpics();
-        save();
+        saveClear(TaskType.EPIC);
     }
-}
\ No newline at end of file
+}
@@ -1,7 +1,9 @@
 package managers;
 
+import exceptions.NotFoundException;
 import tasks.Task;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface HistoryManager {
@@ -9,5 +11,34 @@ public interface HistoryManager {
 
     void remove(int id);
 
+    default void removeAll(Collection<Integer> ids) {
+        for (Integer id : ids) {
+            remove(id);
+        }
+    }
+
     List<Task> getHistory();
+
+    // Растёт при каждом изменении истории
+    long getVersion();
+
+    // История хранит сами задачи, поэтому изменение задачи на месте тоже меняет её содержимое
+    void markChanged(int id);
+
+    default List<Task> getHistory(int offset, int limit) {
+        List<Task> history = getHistory();
+        int from = Math.min(offset, history.size());
+        return history.subList(from, Math.min(history.size(), from + limit));
+    }
+
+    // Страница истории, начинающаяся сразу после задачи с данным id
+    default List<Task> getHistoryAfter(int id, int limit) {
+        List<Task> history = getHistory();
+        for (int i = 0; i < history.size(); i++) {
+            if (history.get(i).getId() == id) {
+                return history.subList(i + 1, Math.min(history.size(), i + 1 + limit));
+            }
+        }
+        throw new NotFoundException("Задача с id=" + id + " отсутствует в истории");
+    }
 }
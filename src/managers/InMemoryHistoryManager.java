@@ -1,26 +1,31 @@
 package managers;
 
+import exceptions.NotFoundException;
 import tasks.Task;
+import utilities.IntHashMap;
+import utilities.IntMap;
 import utilities.Node;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
 import java.util.List;
-import java.util.Map;
 
 public class InMemoryHistoryManager implements HistoryManager {
-    private final Map<Integer, Node<Task>> viewedTasks;
+    private final IntMap<Node<Task>> viewedTasks;
     private Node<Task> head;
     private Node<Task> tail;
+    private long version;
 
     public InMemoryHistoryManager() {
-        viewedTasks = new HashMap<>();
+        viewedTasks = new IntHashMap<>();
     }
 
     private void linkLast(Task task) {
-        if (viewedTasks.containsKey(task.getId())) {
-            removeNode(viewedTasks.get(task.getId()));
+        Node<Task> viewedNode = viewedTasks.get(task.getId());
+        if (viewedNode != null) {
+            removeNode(viewedNode);
         }
+        version++;
         final Node<Task> oldTail = tail;
         final Node<Task> newNode = new Node<>(oldTail, task, null);
         tail = newNode;
@@ -33,9 +38,13 @@ public class InMemoryHistoryManager implements HistoryManager {
     }
 
     private List<Task> getTasks() {
+        return getTasks(head, Integer.MAX_VALUE);
+    }
+
+    private List<Task> getTasks(Node<Task> from, int limit) {
         List<Task> viewedTasksHistory = new ArrayList<>();
-        Node<Task> node = head;
-        while (node != null) {
+        Node<Task> node = from;
+        while (node != null && viewedTasksHistory.size() < limit) {
             viewedTasksHistory.add(node.getItem());
             node = node.getNext();
         }
@@ -45,6 +54,8 @@ public class InMemoryHistoryManager implements HistoryManager {
     private void removeNode(Node<Task> node) {
         Node<Task> next = node.getNext();
         Node<Task> prev = node.getPrev();
+        version++;
+        viewedTasks.remove(node.getItem().getId());
         node.setItem(null);
         if (head != node && tail != node) {
             prev.setNext(next);
@@ -61,11 +72,51 @@ public class InMemoryHistoryManager implements HistoryManager {
         }
     }
 
+    protected int size() {
+        return viewedTasks.size();
+    }
+
+    // Самая давно просмотренная задача - первая в истории
+    protected Task oldest() {
+        return head != null ? head.getItem() : null;
+    }
+
     @Override
     public List<Task> getHistory() {
         return getTasks();
     }
 
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public void markChanged(int id) {
+        if (viewedTasks.get(id) != null) {
+            version++;
+        }
+    }
+
+    @Override
+    public List<Task> getHistory(int offset, int limit) {
+        Node<Task> node = head;
+        for (int i = 0; i < offset && node != null; i++) {
+            node = node.getNext();
+        }
+        return getTasks(node, limit);
+    }
+
+    // Курсор - id последней полученной задачи, поэтому следующая страница находится без обхода начала истории
+    @Override
+    public List<Task> getHistoryAfter(int id, int limit) {
+        Node<Task> node = viewedTasks.get(id);
+        if (node == null) {
+            throw new NotFoundException("Задача с id=" + id + " отсутствует в истории");
+        }
+        return getTasks(node.getNext(), limit);
+    }
+
     @Override
     public void add(Task task) {
         if (task != null) {
@@ -75,9 +126,19 @@ public class InMemoryHistoryManager implements HistoryManager {
 
     @Override
     public void remove(int id) {
-        if (viewedTasks.get(id) != null && getHistory().contains(viewedTasks.get(id).getItem())) {
-            removeNode(viewedTasks.get(id));
+        Node<Task> node = viewedTasks.get(id);
+        if (node != null) {
+            removeNode(node);
         }
+    }
 
+    @Override
+    public void removeAll(Collection<Integer> ids) {
+        if (viewedTasks.isEmpty()) {
+            return;
+        }
+        for (Integer id : ids) {
+            remove(id);
+        }
     }
 }
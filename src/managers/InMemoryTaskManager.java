@@ -1,28 +1,61 @@
 package managers;
 
-import enums.TaskStatus;
+import enums.ChangeType;
+import enums.TaskCollection;
+import enums.TaskType;
 import exceptions.NotFoundException;
 import exceptions.TimeIntersectionException;
 import exceptions.UpdateEpicTimeException;
 import tasks.Task;
 import tasks.Epic;
 import tasks.Subtask;
+import utilities.IntHashMap;
+import utilities.IntMap;
+import utilities.IntervalIndex;
 
-import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 public class InMemoryTaskManager implements TaskManager {
-    protected final Map<Integer, Task> tasks = new HashMap<>();
-    protected final Map<Integer, Epic> epics = new HashMap<>();
-    protected final Map<Integer, Subtask> subtasks = new HashMap<>();
-    private final HistoryManager historyManager = Managers.getDefaultHistory();
-    protected int nextID = 1;
-    protected Set<Task> prioritizedTasks;
+    // id выдаются начиная с 1, так что 0 не совпадает ни с одной задачей
+    private static final int NO_ID = 0;
+
+    protected final IntMap<Task> tasks;
+    protected final IntMap<Epic> epics;
+    protected final IntMap<Subtask> subtasks;
+    private final HistoryManager historyManager;
+    protected final AtomicInteger nextID = new AtomicInteger(1);
+    protected final IntervalIndex prioritizedTasks;
+    private final List<TaskChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLongArray versions = new AtomicLongArray(TaskCollection.values().length);
+    private final QueryIndex queryIndex = new QueryIndex();
 
     public InMemoryTaskManager() {
-        prioritizedTasks = new TreeSet<>(Comparator.comparing(Task::getStartTime).thenComparing(Task::getId));
+        this(Managers.getDefaultHistory());
+    }
+
+    public InMemoryTaskManager(HistoryManager historyManager) {
+        this(new IntHashMap<>(), new IntHashMap<>(), new IntHashMap<>(), new IntervalIndex(), historyManager);
+    }
+
+    // Индекс по времени для хранилищ, которые создают объекты задач при чтении
+    protected static IntervalIndex resolvingIndex(IntMap<Task> tasks, IntMap<Subtask> subtasks) {
+        return IntervalIndex.resolving(id -> {
+            Task task = tasks.get(id);
+            return task != null ? task : subtasks.get(id);
+        });
+    }
+
+    protected InMemoryTaskManager(IntMap<Task> tasks, IntMap<Epic> epics, IntMap<Subtask> subtasks,
+                                  IntervalIndex prioritizedTasks, HistoryManager historyManager) {
+        this.tasks = tasks;
+        this.epics = epics;
+        this.subtasks = subtasks;
+        this.prioritizedTasks = prioritizedTasks;
+        this.historyManager = historyManager;
     }
 
     @Override
@@ -30,19 +63,25 @@ public class InMemoryTaskManager implements TaskManager {
         if (!isAvailableTaskDuration(task)) {
             throw new TimeIntersectionException("Данная задача пересекается по времени с уже существующей");
         }
-        prioritizedTasks.add(task);
-        task.setId(nextID++);
+        task.setId(nextID.getAndIncrement());
         tasks.put(task.getId(), task);
+        prioritizedTasks.add(task);
+        notifyChange(ChangeType.ADDED, TaskType.TASK, task.getId());
 
         return tasks.get(task.getId());
     }
 
     @Override
     public Epic addEpic(Epic epic) throws UpdateEpicTimeException {
-        epic.setId(nextID++);
+        return addEpic(nextID.getAndIncrement(), epic);
+    }
+
+    // id выдаётся заранее, чтобы наследник мог захватить блокировку эпика до его публикации
+    protected Epic addEpic(int id, Epic epic) throws UpdateEpicTimeException {
+        epic.setId(id);
         epics.put(epic.getId(), epic);
-        updateEpicStatus(epic.getId());
-        updateEpicTime(epic.getId());
+        recalculateEpic(epic);
+        notifyChange(ChangeType.ADDED, TaskType.EPIC, epic.getId());
 
         return epics.get(epic.getId());
     }
@@ -52,20 +91,92 @@ public class InMemoryTaskManager implements TaskManager {
         if (!isAvailableTaskDuration(subtask)) {
             throw new TimeIntersectionException("Данная задача пересекается по времени с уже существующей");
         }
-        subtask.setId(nextID++);
+        subtask.setId(nextID.getAndIncrement());
         subtasks.put(subtask.getId(), subtask);
         prioritizedTasks.add(subtask);
-        List<Integer> subtasksIDs = epics.get(subtask.getEpicID()).getSubtaskIDs();
-        Epic epic = epics.get(subtask.getEpicID());
-        subtasksIDs.add(subtask.getId());
-        epic.setSubtaskIDs(subtasksIDs);
-        updateEpicStatus(subtask.getEpicID());
-        updateEpicTime(epic.getId());
-        epics.put(subtask.getEpicID(), epic);
+        epics.get(subtask.getEpicID()).addSubtask(subtask);
+        notifySubtaskChange(ChangeType.ADDED, subtask);
 
         return subtasks.get(subtask.getId());
     }
 
+    @Override
+    public <T extends Task> List<T> addAll(List<T> batch, boolean allOrNothing) {
+        Set<Task> rejected = findUnavailable(batch, allOrNothing);
+        List<T> added = new ArrayList<>(batch.size() - rejected.size());
+        for (T task : batch) {
+            if (rejected.contains(task)) {
+                continue;
+            }
+            task.setId(nextID.getAndIncrement());
+            switch (task.getType()) {
+                case TASK -> {
+                    tasks.put(task.getId(), task);
+                    prioritizedTasks.add(task);
+                }
+                case SUBTASK -> {
+                    Subtask subtask = (Subtask) task;
+                    subtasks.put(subtask.getId(), subtask);
+                    prioritizedTasks.add(subtask);
+                    epics.get(subtask.getEpicID()).addSubtask(subtask);
+                    notifySubtaskChange(ChangeType.ADDED, subtask);
+                }
+                case EPIC -> {
+                    Epic epic = (Epic) task;
+                    epics.put(epic.getId(), epic);
+                    recalculateEpic(epic);
+                }
+            }
+            if (task.getType() != TaskType.SUBTASK) {
+                notifyChange(ChangeType.ADDED, task.getType(), task.getId());
+            }
+            added.add(task);
+        }
+        return added;
+    }
+
+    // Проверка пакета за один проход: задачи сортируются по времени начала, каждая сверяется
+    // с уже существующими по индексу и с принятыми задачами пакета по максимальному времени окончания.
+    // Не меняет ни менеджер, ни задачи пакета, поэтому при allOrNothing исключение оставляет всё нетронутым
+    private Set<Task> findUnavailable(List<? extends Task> batch, boolean allOrNothing) {
+        Set<Task> rejected = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Task> scheduled = new ArrayList<>();
+        for (Task task : batch) {
+            if (task.getType() == TaskType.EPIC) {
+                continue;
+            }
+            if (task.getType() == TaskType.SUBTASK && !epics.containsKey(((Subtask) task).getEpicID())) {
+                if (allOrNothing) {
+                    throw new NotFoundException("Эпик с id=" + ((Subtask) task).getEpicID() + " не найден");
+                }
+                rejected.add(task);
+            } else if (task.getStartTime() == null) {
+                if (allOrNothing) {
+                    throw new TimeIntersectionException("Данная задача пересекается по времени с уже существующей");
+                }
+                rejected.add(task);
+            } else {
+                scheduled.add(task);
+            }
+        }
+        scheduled.sort(Comparator.comparing(Task::getStartTime).thenComparing(Task::getEndTime));
+
+        LocalDateTime acceptedEnd = null;
+        for (Task task : scheduled) {
+            // id из запроса не учитывается: иначе индекс принял бы задачу с тем же id за саму новую задачу
+            if (prioritizedTasks.hasIntersection(task.getStartTime(), task.getEndTime(), NO_ID)
+                    || (acceptedEnd != null && acceptedEnd.isAfter(task.getStartTime()))) {
+                if (allOrNothing) {
+                    throw new TimeIntersectionException("Данная задача пересекается по времени с уже существующей");
+                }
+                rejected.add(task);
+            } else if (acceptedEnd == null || task.getEndTime().isAfter(acceptedEnd)) {
+                acceptedEnd = task.getEndTime();
+            }
+        }
+        return rejected;
+    }
+
     @Override
     public Task updateTask(Task task) {
         if (tasks.get(task.getId()) == null) {
@@ -74,9 +185,9 @@ public class InMemoryTaskManager implements TaskManager {
         if (!isAvailableTaskDuration(task)) {
             throw new TimeIntersectionException("Данная задача пересекается по времени с уже существующей");
         }
-        prioritizedTasks.removeIf(taskFromSet -> taskFromSet.equals(task));
         tasks.put(task.getId(), task);
         prioritizedTasks.add(task);
+        notifyChange(ChangeType.UPDATED, TaskType.TASK, task.getId());
 
         return tasks.get(task.getId());
     }
@@ -89,12 +200,16 @@ public class InMemoryTaskManager implements TaskManager {
         if (!isAvailableTaskDuration(subtask)) {
             throw new TimeIntersectionException("Данная задача пересекается по времени с уже существующей");
         }
-        prioritizedTasks.removeIf(taskFromSet -> taskFromSet.equals(subtask));
-        subtasks.put(subtask.getId(), subtask);
+        Subtask oldSubtask = subtasks.put(subtask.getId(), subtask);
         prioritizedTasks.add(subtask);
-        Epic epic = epics.get(subtask.getEpicID());
-        updateEpicStatus(epic.getId());
-        updateEpicTime(epic.getId());
+        Epic epic = epics.get(oldSubtask.getEpicID());
+        if (oldSubtask == subtask) {
+            recalculateEpic(epic);
+        } else {
+            epic.updateSubtask(oldSubtask, subtask);
+        }
+        notifyChange(ChangeType.UPDATED, TaskType.SUBTASK, subtask.getId());
+        notifyChange(ChangeType.UPDATED, TaskType.EPIC, epic.getId());
 
         return subtasks.get(subtask.getId());
     }
@@ -105,8 +220,8 @@ public class InMemoryTaskManager implements TaskManager {
             throw new NotFoundException("Эпик с id=" + epic.getId() + " не найден");
         }
         epics.put(epic.getId(), epic);
-        updateEpicStatus(epic.getId());
-        updateEpicTime(epic.getId());
+        recalculateEpic(epic);
+        notifyChange(ChangeType.UPDATED, TaskType.EPIC, epic.getId());
 
         return epics.get(epic.getId());
     }
@@ -117,8 +232,9 @@ public class InMemoryTaskManager implements TaskManager {
             throw new NotFoundException("Задача с id=" + id + " не найдена");
         }
         historyManager.remove(id);
-        prioritizedTasks.removeIf(taskFromSet -> taskFromSet.equals(tasks.get(id)));
+        prioritizedTasks.remove(id);
         tasks.remove(id);
+        notifyChange(ChangeType.REMOVED, TaskType.TASK, id);
     }
 
     @Override
@@ -128,11 +244,9 @@ public class InMemoryTaskManager implements TaskManager {
         }
         historyManager.remove(id);
         Subtask removedSubtask = subtasks.remove(id);
-        Epic epic = epics.get(removedSubtask.getEpicID());
-        epic.removeSubtask(id);
-        updateEpicStatus(epic.getId());
-        updateEpicTime(epic.getId());
-        prioritizedTasks.removeIf(taskFromSet -> taskFromSet.equals(removedSubtask));
+        epics.get(removedSubtask.getEpicID()).removeSubtask(removedSubtask);
+        prioritizedTasks.remove(id);
+        notifySubtaskChange(ChangeType.REMOVED, removedSubtask);
     }
 
     @Override
@@ -140,13 +254,16 @@ public class InMemoryTaskManager implements TaskManager {
         if (epics.get(id) == null) {
             throw new NotFoundException("Эпик с id=" + id + " не найден");
         }
-        for (Integer subtaskID : epics.get(id).getSubtaskIDs()) {
-            historyManager.remove(subtaskID);
-            prioritizedTasks.removeIf(taskFromSet -> taskFromSet.equals(subtasks.get(subtaskID)));
+        List<Integer> subtaskIDs = epics.get(id).getSubtaskIDs();
+        historyManager.removeAll(subtaskIDs);
+        for (Integer subtaskID : subtaskIDs) {
+            prioritizedTasks.remove(subtaskID);
             subtasks.remove(subtaskID);
         }
         historyManager.remove(id);
         epics.remove(id);
+        notifyAll(ChangeType.REMOVED, TaskType.SUBTASK, subtaskIDs);
+        notifyChange(ChangeType.REMOVED, TaskType.EPIC, id);
     }
 
     @Override
@@ -169,11 +286,13 @@ public class InMemoryTaskManager implements TaskManager {
 
     @Override
     public Epic getEpic(int id) {
-        if (epics.get(id) == null) {
+        Epic epic = epics.get(id);
+        if (epic == null) {
             throw new NotFoundException("Эпик с id=" + id + " не найден");
         }
-        historyManager.add(epics.get(id));
-        return epics.get(id);
+        epic = published(epic);
+        historyManager.add(epic);
+        return epic;
     }
 
     @Override
@@ -181,9 +300,16 @@ public class InMemoryTaskManager implements TaskManager {
         if (epics.get(id) == null) {
             throw new NotFoundException("Эпик с id=" + id + " не найден");
         }
-        return subtasks.values().stream()
-                .filter(subtask -> subtask.getEpicID() == id)
-                .toList();
+        // Подзадачи берутся по индексу эпика, а не перебором всех подзадач
+        int[] subtaskIDs = epics.get(id).getSubtaskIDArray();
+        List<Subtask> epicSubtasks = new ArrayList<>(subtaskIDs.length);
+        for (int subtaskID : subtaskIDs) {
+            Subtask subtask = subtasks.get(subtaskID);
+            if (subtask != null && subtask.getEpicID() == id) {
+                epicSubtasks.add(subtask);
+            }
+        }
+        return epicSubtasks;
     }
 
     @Override
@@ -198,43 +324,50 @@ public class InMemoryTaskManager implements TaskManager {
 
     @Override
     public List<Epic> getListOfEpics() {
-        return new ArrayList<>(epics.values());
+        List<Epic> list = new ArrayList<>(epics.size());
+        for (Epic epic : epics.values()) {
+            list.add(published(epic));
+        }
+        return list;
     }
 
     @Override
     public void removeAllTasks() {
-        for (Task task : tasks.values()) {
-            historyManager.remove(task.getId());
-            prioritizedTasks.removeIf(taskFromSet -> taskFromSet.equals(task));
-        }
+        List<Integer> removed = idsForListeners(tasks.keySet());
+        historyManager.removeAll(tasks.keySet());
+        prioritizedTasks.removeAll(TaskType.TASK);
         tasks.clear();
+        queryIndex.removeAll(TaskType.TASK);
+        notifyAll(ChangeType.REMOVED, TaskType.TASK, removed);
     }
 
     @Override
     public void removeAllSubtasks() throws UpdateEpicTimeException {
-        for (Subtask subtask : subtasks.values()) {
-            historyManager.remove(subtask.getId());
-            prioritizedTasks.removeIf(taskFromSet -> taskFromSet.equals(subtask));
-        }
+        List<Integer> removed = idsForListeners(subtasks.keySet());
+        historyManager.removeAll(subtasks.keySet());
+        prioritizedTasks.removeAll(TaskType.SUBTASK);
         subtasks.clear();
+        queryIndex.removeAll(TaskType.SUBTASK);
         for (Epic epic : epics.values()) {
             epic.clearSubtasks();
-            updateEpicStatus(epic.getId());
-            updateEpicTime(epic.getId());
         }
+        notifyAll(ChangeType.REMOVED, TaskType.SUBTASK, removed);
+        notifyAll(ChangeType.UPDATED, TaskType.EPIC, epics.keySet());
     }
 
     @Override
     public void removeAllEpics() {
-        for (Subtask subtask : subtasks.values()) {
-            historyManager.remove(subtask.getId());
-            prioritizedTasks.removeIf(taskFromSet -> taskFromSet.equals(subtask));
-        }
+        List<Integer> removedSubtasks = idsForListeners(subtasks.keySet());
+        List<Integer> removedEpics = idsForListeners(epics.keySet());
+        historyManager.removeAll(subtasks.keySet());
+        prioritizedTasks.removeAll(TaskType.SUBTASK);
         subtasks.clear();
-        for (Epic epic : epics.values()) {
-            historyManager.remove(epic.getId());
-        }
+        historyManager.removeAll(epics.keySet());
         epics.clear();
+        queryIndex.removeAll(TaskType.SUBTASK);
+        queryIndex.removeAll(TaskType.EPIC);
+        notifyAll(ChangeType.REMOVED, TaskType.SUBTASK, removedSubtasks);
+        notifyAll(ChangeType.REMOVED, TaskType.EPIC, removedEpics);
     }
 
     @Override
@@ -242,67 +375,205 @@ public class InMemoryTaskManager implements TaskManager {
         return historyManager.getHistory();
     }
 
+    @Override
+    public List<Task> getHistory(int offset, int limit) {
+        return historyManager.getHistory(offset, limit);
+    }
+
+    @Override
+    public List<Task> getHistoryAfter(int id, int limit) {
+        return historyManager.getHistoryAfter(id, limit);
+    }
+
     @Override
     public Set<Task> getPrioritizedTasks() {
-        return prioritizedTasks;
+        return prioritizedTasks.asSet();
     }
 
-    private boolean isAvailableTaskDuration(Task task) {
-        if (task.getStartTime() != null && !prioritizedTasks.isEmpty()) {
-            LocalDateTime startTime = task.getStartTime();
-            LocalDateTime endTime = task.getEndTime();
-            Set<Task> timeCheck = prioritizedTasks.stream()
-                    .filter(taskFromSet -> (taskFromSet.getStartTime().isAfter(endTime)
-                            || taskFromSet.getEndTime().isBefore(startTime)
-                            || taskFromSet.getEndTime().equals(startTime)
-                            || taskFromSet.getStartTime().equals(endTime)
-                            || taskFromSet.equals(task)))
-                    .collect(Collectors.toSet());
-            return timeCheck.size() == prioritizedTasks.size();
-        } else return prioritizedTasks.isEmpty() && task.getStartTime() != null;
-    }
-
-    private void updateEpicTime(int epicID) throws UpdateEpicTimeException {
-        Epic epic = epics.get(epicID);
-        if (!epic.getSubtaskIDs().isEmpty()) {
-            LocalDateTime epicStartTime = epic.getSubtaskIDs().stream()
-                    .map(subtasks::get)
-                    .min(Comparator.comparing(Subtask::getStartTime))
-                    .orElseThrow(() -> new UpdateEpicTimeException("Не удалось обновить время эпика")).getStartTime();
-            LocalDateTime epicEndTime = epic.getSubtaskIDs().stream()
-                    .map(subtasks::get)
-                    .max(Comparator.comparing(Subtask::getEndTime))
-                    .orElseThrow(() -> new UpdateEpicTimeException("Не удалось обновить время эпика")).getEndTime();
-            epic.setStartTime(epicStartTime);
-            epic.setDuration(Duration.between(epicStartTime, epicEndTime));
-        }
-    }
-
-    private void updateEpicStatus(int epicID) {
-        int countSubtasksNEW = 0;
-        int countSubtasksDONE = 0;
-        int countAllSubtasks = epics.get(epicID).getSubtaskIDs().size();
-
-        for (Integer subtaskID : epics.get(epicID).getSubtaskIDs()) {
-            if (subtasks.get(subtaskID).getStatus() == TaskStatus.NEW) {
-                countSubtasksNEW++;
-            } else if (subtasks.get(subtaskID).getStatus() == TaskStatus.DONE) {
-                countSubtasksDONE++;
+    @Override
+    public Set<Task> getPrioritizedTasks(LocalDateTime from, LocalDateTime to) {
+        return prioritizedTasks.range(from, to);
+    }
+
+    @Override
+    public Set<Task> getPrioritizedTasksAfter(int id) {
+        Set<Task> after = prioritizedTasks.after(id);
+        if (after == null) {
+            throw new NotFoundException("Задача с id=" + id + " отсутствует в списке приоритетов");
+        }
+        return after;
+    }
+
+    // Кандидаты отбираются по битовым картам индекса, а задачи достаются по одной до заполнения страницы.
+    // Промежуток времени обходится по списку приоритетов, в который эпики не входят: их время
+    // складывается из подзадач, поэтому такой запрос возвращает только задачи и подзадачи
+    @Override
+    public List<Task> query(TaskQuery query) {
+        BitSet candidates = queryIndex.select(query.type(), query.status(), query.text());
+        if (query.hasTimeRange()) {
+            return queryTimeRange(query, candidates);
+        }
+        List<Task> page = new ArrayList<>(Math.min(query.limit(), candidates.cardinality()));
+        int skipped = 0;
+        for (int id = candidates.nextSetBit(0); id >= 0 && page.size() < query.limit();
+             id = candidates.nextSetBit(id + 1)) {
+            Task task = findPublished(id);
+            if (task != null && skipped++ >= query.offset()) {
+                page.add(task);
             }
         }
+        return page;
+    }
 
-        if (countSubtasksNEW == countAllSubtasks || countAllSubtasks == 0) {
-            Epic epic = epics.get(epicID);
-            epic.setStatus(TaskStatus.NEW);
-            epics.put(epicID, epic);
-        } else if (countSubtasksDONE == countAllSubtasks) {
-            Epic epic = epics.get(epicID);
-            epic.setStatus(TaskStatus.DONE);
-            epics.put(epicID, epic);
+    // Задачи и подзадачи из промежутка времени в порядке списка приоритетов. candidates - id,
+    // подходящие по остальным условиям запроса
+    protected List<Task> queryTimeRange(TaskQuery query, BitSet candidates) {
+        List<Task> page = new ArrayList<>(Math.min(query.limit(), candidates.cardinality()));
+        int skipped = 0;
+        for (Task task : prioritizedTasks.range(query.from(), query.to())) {
+            if (page.size() == query.limit()) {
+                break;
+            }
+            if (candidates.get(task.getId()) && skipped++ >= query.offset()) {
+                page.add(task);
+            }
+        }
+        return page;
+    }
+
+    @Override
+    public List<Task> search(String text, int offset, int limit) {
+        if (offset < 0 || limit < 1) {
+            throw new IllegalArgumentException("Некорректные границы выборки: offset=" + offset + ", limit=" + limit);
+        }
+        int[] ids = queryIndex.search(text, (int) Math.min((long) offset + limit, Integer.MAX_VALUE));
+        List<Task> page = new ArrayList<>(Math.max(ids.length - offset, 0));
+        for (int i = offset; i < ids.length; i++) {
+            Task task = findPublished(ids[i]);
+            if (task != null) {
+                page.add(task);
+            }
+        }
+        return page;
+    }
+
+    private Task findStored(int id) {
+        Task task = tasks.get(id);
+        if (task == null) {
+            task = subtasks.get(id);
+        }
+        return task != null ? task : epics.get(id);
+    }
+
+    private Task findPublished(int id) {
+        Task task = findStored(id);
+        return task instanceof Epic epic ? published(epic) : task;
+    }
+
+    // Эпик в том виде, в котором он уходит из менеджера. Наследники, меняющие эпики параллельно
+    // с чтением, возвращают здесь согласованную копию
+    protected Epic published(Epic epic) {
+        return epic;
+    }
+
+    // Для наследников, которые наполняют хранилища напрямую, минуя методы менеджера
+    protected void rebuildQueryIndex() {
+        queryIndex.clear();
+        tasks.values().forEach(queryIndex::index);
+        subtasks.values().forEach(queryIndex::index);
+        epics.values().forEach(queryIndex::index);
+    }
+
+    @Override
+    public void addChangeListener(TaskChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeChangeListener(TaskChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public long getVersion(TaskCollection collection) {
+        if (collection == TaskCollection.HISTORY) {
+            return historyManager.getVersion();
+        }
+        return versions.get(collection.ordinal());
+    }
+
+    protected void notifyChange(ChangeType change, TaskType type, int id) {
+        updateQueryIndex(change, id);
+        markHistoryChanged(change, type, id);
+        incrementVersions(type);
+        for (TaskChangeListener listener : listeners) {
+            listener.onChange(change, type, id);
+        }
+    }
+
+    // Задачи и подзадачи входят ещё и в список приоритетов, эпики - нет
+    private void incrementVersions(TaskType type) {
+        switch (type) {
+            case TASK -> {
+                versions.incrementAndGet(TaskCollection.TASKS.ordinal());
+                versions.incrementAndGet(TaskCollection.PRIORITIZED.ordinal());
+            }
+            case SUBTASK -> {
+                versions.incrementAndGet(TaskCollection.SUBTASKS.ordinal());
+                versions.incrementAndGet(TaskCollection.PRIORITIZED.ordinal());
+            }
+            case EPIC -> versions.incrementAndGet(TaskCollection.EPICS.ordinal());
+        }
+    }
+
+    // Изменение подзадачи меняет и её эпик
+    private void notifySubtaskChange(ChangeType change, Subtask subtask) {
+        notifyChange(change, TaskType.SUBTASK, subtask.getId());
+        notifyChange(ChangeType.UPDATED, TaskType.EPIC, subtask.getEpicID());
+    }
+
+    private void notifyAll(ChangeType change, TaskType type, Collection<Integer> ids) {
+        for (int id : ids) {
+            updateQueryIndex(change, id);
+            markHistoryChanged(change, type, id);
+        }
+        incrementVersions(type);
+        for (TaskChangeListener listener : listeners) {
+            for (int id : ids) {
+                listener.onChange(change, type, id);
+            }
+        }
+    }
+
+    private void updateQueryIndex(ChangeType change, int id) {
+        Task task = change == ChangeType.REMOVED ? null : findStored(id);
+        if (task != null) {
+            queryIndex.index(task);
         } else {
-            Epic epic = epics.get(epicID);
-            epic.setStatus(TaskStatus.IN_PROGRESS);
-            epics.put(epicID, epic);
+            queryIndex.remove(id);
         }
     }
+
+    // Эпик меняется на месте вместе с подзадачами, и просмотренный эпик в истории меняется вместе с ним
+    private void markHistoryChanged(ChangeType change, TaskType type, int id) {
+        if (change == ChangeType.UPDATED && type == TaskType.EPIC) {
+            historyManager.markChanged(id);
+        }
+    }
+
+    // Без слушателей id удаляемых задач не копируются
+    private List<Integer> idsForListeners(Collection<Integer> ids) {
+        return listeners.isEmpty() ? List.of() : new ArrayList<>(ids);
+    }
+
+    private boolean isAvailableTaskDuration(Task task) {
+        return task.getStartTime() != null && !prioritizedTasks.hasIntersection(task);
+    }
+
+    protected void recalculateEpic(Epic epic) {
+        epic.recalculate(Arrays.stream(epic.getSubtaskIDArray())
+                .mapToObj(subtasks::get)
+                .filter(Objects::nonNull)
+                .toList());
+    }
 }
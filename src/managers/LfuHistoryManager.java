@@ -0,0 +1,97 @@
+package managers;
+
+import tasks.Task;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+// Вытесняется задача с наименьшим числом просмотров, среди равных - просмотренная раньше остальных.
+// Группы с одинаковым числом просмотров связаны в список по возрастанию частоты, поэтому
+// и учёт просмотра, и поиск вытесняемой задачи выполняются за O(1)
+public class LfuHistoryManager extends InMemoryHistoryManager {
+    private final int capacity;
+    private final Map<Integer, FrequencyGroup> groupsByID = new HashMap<>();
+    private FrequencyGroup rarest;
+
+    public LfuHistoryManager(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Размер истории должен быть больше нуля");
+        }
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void add(Task task) {
+        if (task == null) {
+            return;
+        }
+        FrequencyGroup group = groupsByID.get(task.getId());
+        if (group == null) {
+            if (size() >= capacity) {
+                remove(rarest.ids.iterator().next());
+            }
+            group = rarest != null && rarest.frequency == 1 ? rarest : insertAfter(null, 1);
+        } else {
+            FrequencyGroup next = group.next;
+            if (next == null || next.frequency != group.frequency + 1) {
+                next = insertAfter(group, group.frequency + 1);
+            }
+            leave(group, task.getId());
+            group = next;
+        }
+        group.ids.add(task.getId());
+        groupsByID.put(task.getId(), group);
+        super.add(task);
+    }
+
+    @Override
+    public void remove(int id) {
+        FrequencyGroup group = groupsByID.remove(id);
+        if (group != null) {
+            leave(group, id);
+        }
+        super.remove(id);
+    }
+
+    private FrequencyGroup insertAfter(FrequencyGroup prev, int frequency) {
+        FrequencyGroup group = new FrequencyGroup(frequency);
+        group.prev = prev;
+        group.next = prev != null ? prev.next : rarest;
+        if (group.next != null) {
+            group.next.prev = group;
+        }
+        if (prev != null) {
+            prev.next = group;
+        } else {
+            rarest = group;
+        }
+        return group;
+    }
+
+    private void leave(FrequencyGroup group, int id) {
+        group.ids.remove(id);
+        if (!group.ids.isEmpty()) {
+            return;
+        }
+        if (group.prev != null) {
+            group.prev.next = group.next;
+        } else {
+            rarest = group.next;
+        }
+        if (group.next != null) {
+            group.next.prev = group.prev;
+        }
+    }
+
+    private static class FrequencyGroup {
+        private final int frequency;
+        private final LinkedHashSet<Integer> ids = new LinkedHashSet<>();
+        private FrequencyGroup prev;
+        private FrequencyGroup next;
+
+        FrequencyGroup(int frequency) {
+            this.frequency = frequency;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package managers;
+
+import tasks.Task;
+
+// История хранится в порядке просмотров, поэтому при переполнении вытесняется её начало
+public class LruHistoryManager extends InMemoryHistoryManager {
+    private final int capacity;
+
+    public LruHistoryManager(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Размер истории должен быть больше нуля");
+        }
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void add(Task task) {
+        super.add(task);
+        if (size() > capacity) {
+            remove(oldest().getId());
+        }
+    }
+}
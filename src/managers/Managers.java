@@ -1,11 +1,47 @@
 package managers;
 
+import enums.EvictionPolicy;
+import enums.StoreMode;
+
+import java.time.Duration;
+
 public class Managers {
+    private static final Duration DEFAULT_HISTORY_WINDOW = Duration.ofHours(1);
+
     public static TaskManager getDefault() {
         return new InMemoryTaskManager();
     }
 
+    public static TaskManager getDefault(StoreMode mode) {
+        return switch (mode) {
+            case OBJECTS -> new InMemoryTaskManager();
+            case COLUMNAR -> new ColumnarTaskManager();
+            case OFF_HEAP -> new OffHeapTaskManager();
+        };
+    }
+
+    public static TaskManager getConcurrent() {
+        return getConcurrent(getDefaultHistory());
+    }
+
+    public static TaskManager getConcurrent(HistoryManager historyManager) {
+        return new ConcurrentTaskManager(historyManager);
+    }
+
     public static HistoryManager getDefaultHistory() {
         return new InMemoryHistoryManager();
     }
+
+    public static HistoryManager getDefaultHistory(EvictionPolicy policy, int capacity) {
+        return getDefaultHistory(policy, capacity, DEFAULT_HISTORY_WINDOW);
+    }
+
+    // window учитывается только политикой TIME_WINDOW
+    public static HistoryManager getDefaultHistory(EvictionPolicy policy, int capacity, Duration window) {
+        return switch (policy) {
+            case LRU -> new LruHistoryManager(capacity);
+            case LFU -> new LfuHistoryManager(capacity);
+            case TIME_WINDOW -> new TimeWindowHistoryManager(capacity, window);
+        };
+    }
 }
@@ -0,0 +1,28 @@
+package managers;
+
+import tasks.Subtask;
+import tasks.Task;
+import utilities.IntHashMap;
+import utilities.OffHeapTaskStore;
+
+// Задачи и подзадачи хранятся вне кучи, в куче остаются эпики, индекс id -> адрес, интервалы
+// расписания и история просмотров. Семантика совпадает с InMemoryTaskManager.
+// Остаток в куче на задачу (сжатые ссылки): около 21 байта в хранилище, около 90 байт в списке приоритетов
+// (Slot, узел TreeMap и ячейка IntHashMap), доли байта в битовых картах QueryIndex, 8-12 байт на каждое
+// различное слово в TextIndex плюс массив слов задачи. HTTP-сервер добавляет запись JsonCache (около 70 байт
+// и сам JSON) для каждой отданной задачи. Итого порядка 120 байт и сотни байт JSON у отданных задач
+public class OffHeapTaskManager extends InMemoryTaskManager {
+
+    public OffHeapTaskManager() {
+        this(Managers.getDefaultHistory());
+    }
+
+    public OffHeapTaskManager(HistoryManager historyManager) {
+        this(new OffHeapTaskStore<>(), new OffHeapTaskStore<>(), historyManager);
+    }
+
+    private OffHeapTaskManager(OffHeapTaskStore<Task> tasks, OffHeapTaskStore<Subtask> subtasks,
+                               HistoryManager historyManager) {
+        super(tasks, new IntHashMap<>(), subtasks, resolvingIndex(tasks, subtasks), historyManager);
+    }
+}
@@ -0,0 +1,93 @@
+package managers;
+
+import enums.TaskStatus;
+import enums.TaskType;
+import tasks.Task;
+import utilities.TextIndex;
+
+import java.util.BitSet;
+
+// Вторичные индексы для запросов: битовые карты id по типу и статусу и обратный индекс слов названия
+// и описания. Изменяется из разных блокировок ConcurrentTaskManager, поэтому все методы синхронизированы
+final class QueryIndex {
+    private final BitSet[] byType = new BitSet[TaskType.values().length];
+    private final BitSet[] byStatus = new BitSet[TaskStatus.values().length];
+    private final TextIndex text = new TextIndex();
+
+    QueryIndex() {
+        for (int i = 0; i < byType.length; i++) {
+            byType[i] = new BitSet();
+        }
+        for (int i = 0; i < byStatus.length; i++) {
+            byStatus[i] = new BitSet();
+        }
+    }
+
+    synchronized void index(Task task) {
+        int id = task.getId();
+        clearBits(id);
+        byType[task.getType().ordinal()].set(id);
+        if (task.getStatus() != null) {
+            byStatus[task.getStatus().ordinal()].set(id);
+        }
+        text.add(id, task.getTaskName(), task.getTaskDescription());
+    }
+
+    synchronized void remove(int id) {
+        clearBits(id);
+        text.remove(id);
+    }
+
+    private void clearBits(int id) {
+        for (BitSet ids : byType) {
+            ids.clear(id);
+        }
+        for (BitSet ids : byStatus) {
+            ids.clear(id);
+        }
+    }
+
+    synchronized void removeAll(TaskType type) {
+        BitSet ids = (BitSet) byType[type.ordinal()].clone();
+        for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+            remove(id);
+        }
+    }
+
+    synchronized void clear() {
+        for (BitSet ids : byType) {
+            ids.clear();
+        }
+        for (BitSet ids : byStatus) {
+            ids.clear();
+        }
+        text.clear();
+    }
+
+    // Копия множества id, подходящих под тип, статус и все слова текста. Копия позволяет
+    // перебирать результат без блокировки, пока индекс меняется
+    synchronized BitSet select(TaskType type, TaskStatus status, String query) {
+        BitSet result;
+        if (type != null) {
+            result = (BitSet) byType[type.ordinal()].clone();
+        } else {
+            result = new BitSet();
+            for (BitSet ids : byType) {
+                result.or(ids);
+            }
+        }
+        if (status != null) {
+            result.and(byStatus[status.ordinal()]);
+        }
+        BitSet matched = result.isEmpty() ? null : text.matchAll(query);
+        if (matched != null) {
+            result.and(matched);
+        }
+        return result;
+    }
+
+    // id в порядке убывания релевантности
+    synchronized int[] search(String query, int count) {
+        return text.search(query, count);
+    }
+}
@@ -0,0 +1,54 @@
+package managers;
+
+import tasks.Task;
+
+import java.util.Collection;
+import java.util.List;
+
+public class SynchronizedHistoryManager implements HistoryManager {
+    private final HistoryManager historyManager;
+
+    public SynchronizedHistoryManager(HistoryManager historyManager) {
+        this.historyManager = historyManager;
+    }
+
+    @Override
+    public synchronized void add(Task task) {
+        historyManager.add(task);
+    }
+
+    @Override
+    public synchronized void remove(int id) {
+        historyManager.remove(id);
+    }
+
+    @Override
+    public synchronized void removeAll(Collection<Integer> ids) {
+        historyManager.removeAll(ids);
+    }
+
+    @Override
+    public synchronized List<Task> getHistory() {
+        return historyManager.getHistory();
+    }
+
+    @Override
+    public synchronized long getVersion() {
+        return historyManager.getVersion();
+    }
+
+    @Override
+    public synchronized void markChanged(int id) {
+        historyManager.markChanged(id);
+    }
+
+    @Override
+    public synchronized List<Task> getHistory(int offset, int limit) {
+        return historyManager.getHistory(offset, limit);
+    }
+
+    @Override
+    public synchronized List<Task> getHistoryAfter(int id, int limit) {
+        return historyManager.getHistoryAfter(id, limit);
+    }
+}
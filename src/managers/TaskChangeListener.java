@@ -0,0 +1,11 @@
+package managers;
+
+import enums.ChangeType;
+import enums.TaskType;
+
+// Вызывается менеджером после каждого изменения задачи в том же потоке. Изменение подзадачи
+// сообщается и для её эпика, так как вместе с ней меняются статус, время и список подзадач эпика
+@FunctionalInterface
+public interface TaskChangeListener {
+    void onChange(ChangeType change, TaskType type, int id);
+}
@@ -1,9 +1,11 @@
 package managers;
 
+import enums.TaskCollection;
 import tasks.Epic;
 import tasks.Subtask;
 import tasks.Task;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Set;
 
@@ -15,6 +17,10 @@ public interface TaskManager {
 
     Subtask addSubtask(Subtask subtask);
 
+    // Возвращает добавленные задачи в исходном порядке. При allOrNothing первая же ошибка
+    // отменяет добавление всего пакета, иначе конфликтующие задачи пропускаются
+    <T extends Task> List<T> addAll(List<T> tasks, boolean allOrNothing);
+
     Task updateTask(Task task);
 
     Subtask updateSubtask(Subtask subtask);
@@ -49,5 +55,35 @@ public interface TaskManager {
 
     List<Task> getHistory();
 
+    List<Task> getHistory(int offset, int limit);
+
+    List<Task> getHistoryAfter(int id, int limit);
+
     Set<Task> getPrioritizedTasks();
+
+    Set<Task> getPrioritizedTasks(LocalDateTime from, LocalDateTime to);
+
+    Set<Task> getPrioritizedTasksAfter(int id);
+
+    // Выборка по вторичным индексам без копирования коллекций и без записи в историю
+    List<Task> query(TaskQuery query);
+
+    // Полнотекстовый поиск по названию и описанию: задачи всех типов по убыванию релевантности.
+    // Слово запроса совпадает и с началом более длинного слова
+    List<Task> search(String text, int offset, int limit);
+
+    void addChangeListener(TaskChangeListener listener);
+
+    void removeChangeListener(TaskChangeListener listener);
+
+    // Версия коллекции растёт при каждом её изменении через менеджер
+    long getVersion(TaskCollection collection);
+
+    default void flush() {
+    }
+
+    // Освобождает ресурсы менеджера; после закрытия менеджер не используется
+    default void close() {
+        flush();
+    }
 }
@@ -0,0 +1,23 @@
+package managers;
+
+import enums.TaskStatus;
+import enums.TaskType;
+
+import java.time.LocalDateTime;
+
+// Условия со значением null не ограничивают выборку. text задаёт слова, которые все должны встретиться
+// в названии или описании. При заданном промежутке времени результат упорядочен по началу задачи,
+// иначе - по id
+public record TaskQuery(TaskType type, TaskStatus status, LocalDateTime from, LocalDateTime to, String text,
+                        int offset, int limit) {
+
+    public TaskQuery {
+        if (offset < 0 || limit < 1) {
+            throw new IllegalArgumentException("Некорректные границы выборки: offset=" + offset + ", limit=" + limit);
+        }
+    }
+
+    boolean hasTimeRange() {
+        return from != null || to != null;
+    }
+}
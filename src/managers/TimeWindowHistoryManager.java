@@ -0,0 +1,87 @@
+package managers;
+
+import tasks.Task;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Задачи упорядочены по времени последнего просмотра, поэтому устаревшие всегда в начале истории
+public class TimeWindowHistoryManager extends InMemoryHistoryManager {
+    private final int capacity;
+    private final Duration window;
+    private final Clock clock;
+    private final Map<Integer, Instant> viewedAt = new HashMap<>();
+
+    public TimeWindowHistoryManager(int capacity, Duration window) {
+        this(capacity, window, Clock.systemUTC());
+    }
+
+    TimeWindowHistoryManager(int capacity, Duration window, Clock clock) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Размер истории должен быть больше нуля");
+        }
+        if (window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("Окно истории должно быть больше нуля");
+        }
+        this.capacity = capacity;
+        this.window = window;
+        this.clock = clock;
+    }
+
+    private void evictExpired() {
+        Instant expiredBefore = clock.instant().minus(window);
+        Task oldest = oldest();
+        while (oldest != null && viewedAt.get(oldest.getId()).isBefore(expiredBefore)) {
+            remove(oldest.getId());
+            oldest = oldest();
+        }
+    }
+
+    @Override
+    public void add(Task task) {
+        if (task == null) {
+            return;
+        }
+        super.add(task);
+        viewedAt.put(task.getId(), clock.instant());
+        evictExpired();
+        if (size() > capacity) {
+            remove(oldest().getId());
+        }
+    }
+
+    @Override
+    public void remove(int id) {
+        super.remove(id);
+        viewedAt.remove(id);
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        evictExpired();
+        return super.getHistory();
+    }
+
+    // Устаревшие задачи удаляются лениво, поэтому версия учитывает их до ответа
+    @Override
+    public long getVersion() {
+        evictExpired();
+        return super.getVersion();
+    }
+
+    @Override
+    public List<Task> getHistory(int offset, int limit) {
+        evictExpired();
+        return super.getHistory(offset, limit);
+    }
+
+    @Override
+    public List<Task> getHistoryAfter(int id, int limit) {
+        evictExpired();
+        return super.getHistoryAfter(id, limit);
+    }
+}
@@ -0,0 +1,31 @@
+package server;
+
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+public class BackpressureFilter extends Filter {
+
+    @Override
+    public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+        if (!BoundedExecutor.isSaturated()) {
+            chain.doFilter(exchange);
+            return;
+        }
+        byte[] message = "Сервер перегружен. Повторите запрос позже".getBytes(StandardCharsets.UTF_8);
+        try (OutputStream os = exchange.getResponseBody()) {
+            exchange.getResponseHeaders().add("Content-Type", "text/plain");
+            exchange.getResponseHeaders().add("Retry-After", "1");
+            exchange.sendResponseHeaders(503, message.length);
+            os.write(message);
+        }
+    }
+
+    @Override
+    public String description() {
+        return "Отклоняет запросы с кодом 503, когда очередь сервера заполнена";
+    }
+}
@@ -0,0 +1,67 @@
+package server;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Пропускает в работу не больше maxInFlight запросов. Лишний запрос выполняется прямо
+// в потоке диспетчера с пометкой перегрузки, чтобы фильтр сразу ответил на него 503.
+// Во время остановки так же отклоняются все новые запросы
+public class BoundedExecutor implements Executor {
+    private static final ThreadLocal<Boolean> SATURATED = ThreadLocal.withInitial(() -> false);
+
+    private final ExecutorService delegate;
+    private final int maxInFlight;
+    private final Semaphore permits;
+    private volatile boolean draining;
+
+    public BoundedExecutor(ExecutorService delegate, int maxInFlight) {
+        this.delegate = delegate;
+        this.maxInFlight = maxInFlight;
+        this.permits = new Semaphore(maxInFlight);
+    }
+
+    public static boolean isSaturated() {
+        return SATURATED.get();
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (draining || !permits.tryAcquire()) {
+            runSaturated(command);
+            return;
+        }
+        try {
+            delegate.execute(() -> {
+                try {
+                    command.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            runSaturated(command);
+        }
+    }
+
+    // Перестаёт брать новые запросы и ждёт, пока начатые вернут все разрешения, то есть отправят ответы.
+    // Возвращает false, если за timeout они не завершились
+    public boolean shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+        draining = true;
+        boolean drained = permits.tryAcquire(maxInFlight, timeout, unit);
+        delegate.shutdown();
+        return drained && delegate.awaitTermination(timeout, unit);
+    }
+
+    private void runSaturated(Runnable command) {
+        SATURATED.set(true);
+        try {
+            command.run();
+        } finally {
+            SATURATED.set(false);
+        }
+    }
+}
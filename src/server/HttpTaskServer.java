@@ -1,19 +1,57 @@
 package server;
 
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpHandler;
 import com.sun.net.httpserver.HttpServer;
+import enums.ExecutorMode;
+import managers.ChangeFeed;
 import managers.TaskManager;
 import server.handlers.*;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 public class HttpTaskServer {
     private HttpServer server;
+    private BoundedExecutor executor;
     private final TaskManager taskManager;
+    private final ExecutorMode executorMode;
+    private final int threads;
+    private final int queueCapacity;
+    private final int maxBodySize;
+    private final JsonCache jsonCache;
+    private final ChangeFeed changeFeed;
     private static final int PORT = 8080;
+    private static final int STOP_DELAY_SECONDS = 1;
+    private static final int DRAIN_TIMEOUT_SECONDS = 30;
+    private static final int CHANGE_FEED_CAPACITY = 10_000;
+    private static final int MAX_LONG_POLL_SECONDS = 25;
+    // Доля потоков, которую могут занять длинные опросы: остальные всегда свободны для обычных запросов
+    private static final int THREADS_PER_LONG_POLL = 4;
 
     public HttpTaskServer(TaskManager taskManager) {
+        this(taskManager, ExecutorMode.DISPATCHER, 1, 0);
+    }
+
+    // threads - сколько запросов обрабатывается одновременно, queueCapacity - сколько ещё может ждать.
+    // Сверх этого сервер отвечает 503
+    public HttpTaskServer(TaskManager taskManager, ExecutorMode executorMode, int threads, int queueCapacity) {
+        this(taskManager, executorMode, threads, queueCapacity, BaseHttpHandler.DEFAULT_MAX_BODY_SIZE);
+    }
+
+    // maxBodySize - наибольший размер тела запроса в байтах, больше него сервер отвечает 413
+    public HttpTaskServer(TaskManager taskManager, ExecutorMode executorMode, int threads, int queueCapacity,
+                          int maxBodySize) {
         this.taskManager = taskManager;
+        this.executorMode = executorMode;
+        this.threads = threads;
+        this.queueCapacity = queueCapacity;
+        this.maxBodySize = maxBodySize;
+        this.jsonCache = new JsonCache(taskManager);
+        this.changeFeed = new ChangeFeed(CHANGE_FEED_CAPACITY);
+        taskManager.addChangeListener(changeFeed);
     }
 
     public static void main(String[] args) {
@@ -21,17 +59,54 @@ public class HttpTaskServer {
 
     public void start() throws IOException {
         server = HttpServer.create(new InetSocketAddress(PORT), 0);
-        server.createContext("/tasks", new TaskHandler(taskManager));
-        server.createContext("/subtasks", new SubtaskHandler(taskManager));
-        server.createContext("/epics", new EpicHandler(taskManager));
-        server.createContext("/history", new HistoryHandler(taskManager));
-        server.createContext("/prioritized", new PriorityListHandler(taskManager));
+        createContext("/tasks", new TaskHandler(taskManager, maxBodySize, jsonCache));
+        createContext("/subtasks", new SubtaskHandler(taskManager, maxBodySize, jsonCache));
+        createContext("/epics", new EpicHandler(taskManager, maxBodySize, jsonCache));
+        createContext("/history", new HistoryHandler(taskManager));
+        createContext("/prioritized", new PriorityListHandler(taskManager, jsonCache));
+        createContext("/search", new SearchHandler(taskManager, jsonCache));
+        // В режиме DISPATCHER ожидающий запрос занял бы единственный поток сервера
+        createContext("/changes", new ChangesHandler(taskManager, changeFeed,
+                executorMode == ExecutorMode.DISPATCHER ? 0 : MAX_LONG_POLL_SECONDS,
+                Math.max(1, threads / THREADS_PER_LONG_POLL)));
+        executor = switch (executorMode) {
+            case DISPATCHER -> null;
+            case VIRTUAL_THREADS -> new BoundedExecutor(Executors.newVirtualThreadPerTaskExecutor(),
+                    threads + queueCapacity);
+            case BOUNDED_POOL -> new BoundedExecutor(Executors.newFixedThreadPool(threads),
+                    threads + queueCapacity);
+        };
+        server.setExecutor(executor);
         server.start();
         System.out.println("HTTP-сервер запущен на " + PORT + " порту!");
     }
 
+    // Сначала дорабатывают начатые запросы, а новые получают 503: HttpServer не умеет закрыть только
+    // приём соединений, поэтому сервер останавливается уже после того, как ответы отправлены.
+    // Длинные опросы будятся сразу. Менеджер принадлежит вызывающему: сервер только отписывает от него
+    // свои кэш и ленту изменений и сбрасывает накопленное на диск, а закрывает менеджер его владелец
     public void stop() {
-        server.stop(1);
+        changeFeed.close();
+        if (executor == null) {
+            server.stop(STOP_DELAY_SECONDS);
+        } else {
+            try {
+                executor.shutdown(DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            server.stop(0);
+        }
+        taskManager.removeChangeListener(changeFeed);
+        jsonCache.close();
+        taskManager.flush();
         System.out.println("Сервер завершил работу");
     }
+
+    private void createContext(String path, HttpHandler handler) {
+        HttpContext context = server.createContext(path, handler);
+        if (executorMode != ExecutorMode.DISPATCHER) {
+            context.getFilters().add(new BackpressureFilter());
+        }
+    }
 }
@@ -0,0 +1,40 @@
+package server.adapters;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import utilities.IntSet;
+
+import java.io.IOException;
+
+// Множество записывается JSON-массивом чисел, как прежний List<Integer>
+public class IntSetTypeAdapter extends TypeAdapter<IntSet> {
+    @Override
+    public void write(JsonWriter jsonWriter, IntSet set) throws IOException {
+        if (set == null) {
+            jsonWriter.nullValue();
+            return;
+        }
+        jsonWriter.beginArray();
+        for (int value : set.toArray()) {
+            jsonWriter.value(value);
+        }
+        jsonWriter.endArray();
+    }
+
+    @Override
+    public IntSet read(JsonReader jsonReader) throws IOException {
+        if (jsonReader.peek() == JsonToken.NULL) {
+            jsonReader.nextNull();
+            return new IntSet();
+        }
+        IntSet set = new IntSet();
+        jsonReader.beginArray();
+        while (jsonReader.hasNext()) {
+            set.add(jsonReader.nextInt());
+        }
+        jsonReader.endArray();
+        return set;
+    }
+}
@@ -2,26 +2,177 @@ package server.handlers;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.google.gson.stream.MalformedJsonException;
 import com.sun.net.httpserver.HttpExchange;
+import enums.TaskCollection;
+import enums.TaskStatus;
+import enums.TaskType;
+import exceptions.ManagerSaveException;
+import exceptions.NotFoundException;
+import exceptions.PayloadTooLargeException;
+import exceptions.TimeIntersectionException;
+import exceptions.UpdateEpicTimeException;
 import managers.TaskManager;
+import managers.TaskQuery;
 import server.adapters.DurationTypeAdapter;
 import server.adapters.LocalDateTimeTypeAdapter;
+import tasks.Task;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.lang.reflect.Type;
+import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 public class BaseHttpHandler {
+    protected static final int DEFAULT_PAGE_SIZE = 100;
+    protected static final int MAX_PAGE_SIZE = 1000;
+    public static final int DEFAULT_MAX_BODY_SIZE = 1024 * 1024;
+    private static final int BATCH_BODY_SIZE_MULTIPLIER = 64;
+    private static final int RESPONSE_BUFFER_SIZE = 16 * 1024;
+    private static final int DRAIN_BUFFER_SIZE = 8 * 1024;
+    private static final long MAX_DRAIN_SIZE = 16L * 1024 * 1024;
+    private static final Set<String> QUERY_PARAMS = Set.of("type", "status", "from", "to", "q", "offset", "limit");
+
     protected final TaskManager taskManager;
-    protected final Gson gson = new GsonBuilder()
-            .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeTypeAdapter())
-            .registerTypeAdapter(Duration.class, new DurationTypeAdapter())
-            .create();
+    protected final int maxBodySize;
+    protected final JsonCache jsonCache;
+    protected final Gson gson = createGson();
 
     public BaseHttpHandler(TaskManager taskManager) {
+        this(taskManager, DEFAULT_MAX_BODY_SIZE);
+    }
+
+    public BaseHttpHandler(TaskManager taskManager, int maxBodySize) {
+        this(taskManager, maxBodySize, null);
+    }
+
+    // Без кэша задачи сериализуются при каждом запросе
+    public BaseHttpHandler(TaskManager taskManager, int maxBodySize, JsonCache jsonCache) {
         this.taskManager = taskManager;
+        this.maxBodySize = maxBodySize;
+        this.jsonCache = jsonCache;
+    }
+
+    static Gson createGson() {
+        return new GsonBuilder()
+                .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeTypeAdapter())
+                .registerTypeAdapter(Duration.class, new DurationTypeAdapter())
+                .create();
+    }
+
+    // Тело читается только обработчиками, которым оно нужно, и разбирается прямо из потока.
+    // Слишком большое тело отклоняется по Content-Length до чтения, а без него - как только превысит лимит
+    protected <T> T readJson(HttpExchange exchange, Class<T> type) throws IOException {
+        return readJson(exchange, type, maxBodySize);
+    }
+
+    protected <T> T readJson(HttpExchange exchange, Type type, long limit) throws IOException {
+        String contentLength = exchange.getRequestHeaders().getFirst("Content-Length");
+        if (contentLength != null && parseContentLength(contentLength) > limit) {
+            throw new PayloadTooLargeException("Размер тела запроса превышает " + limit + " байт");
+        }
+        JsonReader reader = gson.newJsonReader(new InputStreamReader(
+                new LimitedInputStream(exchange.getRequestBody(), limit), StandardCharsets.UTF_8));
+        T value = gson.fromJson(reader, type);
+        try {
+            if (value == null || reader.peek() != JsonToken.END_DOCUMENT) {
+                throw new JsonSyntaxException("Тело запроса должно содержать один JSON-объект");
+            }
+        } catch (MalformedJsonException e) {
+            throw new JsonSyntaxException(e);
+        }
+        return value;
+    }
+
+    // Некорректная длина считается невалидным телом: обработчики отвечают на него 400
+    private static long parseContentLength(String contentLength) {
+        try {
+            long length = Long.parseLong(contentLength.trim());
+            if (length >= 0) {
+                return length;
+            }
+        } catch (NumberFormatException e) {
+            // сообщение об ошибке формируется ниже
+        }
+        throw new JsonSyntaxException("Некорректный заголовок Content-Length: " + contentLength);
+    }
+
+    // GET списка с параметрами выборки отбирает задачи через индекс менеджера, тип по умолчанию - тип списка.
+    // Прочие параметры (например, ?_=123 против кэширования) выборку не включают: тогда возвращается false
+    // и обработчик отдаёт весь список
+    protected boolean handleQuery(HttpExchange exchange, TaskType defaultType) throws IOException {
+        Map<String, String> params = getQueryParams(exchange);
+        if (Collections.disjoint(params.keySet(), QUERY_PARAMS)) {
+            return false;
+        }
+        try {
+            TaskType type = getEnumParam(params, "type", TaskType.class);
+            TaskQuery query = new TaskQuery(
+                    type != null ? type : defaultType,
+                    getEnumParam(params, "status", TaskStatus.class),
+                    getDateTimeParam(params, "from"),
+                    getDateTimeParam(params, "to"),
+                    params.get("q"),
+                    getIntParam(params, "offset", 0, 0, Integer.MAX_VALUE),
+                    getIntParam(params, "limit", DEFAULT_PAGE_SIZE, 1, MAX_PAGE_SIZE));
+            long stamp = cacheStamp();
+            sendTasks(exchange, taskManager.query(query), stamp);
+        } catch (IllegalArgumentException e) {
+            sendBadRequest(exchange, e.getMessage());
+        }
+        return true;
+    }
+
+    // Тело - JSON-массив задач одного типа, ответ 201 содержит id добавленных задач в порядке запроса
+    // и null на месте пропущенных. Параметр atomic=true включает режим "всё или ничего"
+    protected <T extends Task> void handleAddBatch(HttpExchange exchange, Class<T> type) throws IOException {
+        try {
+            boolean allOrNothing = Boolean.parseBoolean(getQueryParams(exchange).get("atomic"));
+            List<T> batch = readJson(exchange, TypeToken.getParameterized(List.class, type).getType(),
+                    (long) maxBodySize * BATCH_BODY_SIZE_MULTIPLIER);
+            if (batch.contains(null)) {
+                throw new JsonSyntaxException("Пакет содержит пустой элемент");
+            }
+            Set<Task> added = Collections.newSetFromMap(new IdentityHashMap<>());
+            added.addAll(taskManager.addAll(batch, allOrNothing));
+            List<Integer> ids = batch.stream()
+                    .map(task -> added.contains(task) ? task.getId() : null)
+                    .toList();
+            streamJson(exchange, ids, 201);
+        } catch (JsonSyntaxException e) {
+            sendBadRequest(exchange, "Переданные данные невалидны для пакетного создания");
+        } catch (PayloadTooLargeException e) {
+            sendPayloadTooLarge(exchange, e.getMessage());
+        } catch (NotFoundException e) {
+            sendNotFound(exchange, e.getMessage());
+        } catch (TimeIntersectionException e) {
+            sendHasInteractions(exchange, e.getMessage());
+        } catch (UpdateEpicTimeException | ManagerSaveException e) {
+            sendError(exchange, e.getMessage());
+        }
     }
 
     protected void sendText(HttpExchange exchange, String message, int code) throws IOException {
@@ -50,6 +201,24 @@ public class BaseHttpHandler {
         sendText(exchange, message, 406);
     }
 
+    // Остаток отклонённого тела пропускается без сохранения, иначе сервер закроет соединение
+    // раньше, чем клиент допишет запрос, и тот не получит ответ. Пропуск ограничен MAX_DRAIN_SIZE
+    protected void sendPayloadTooLarge(HttpExchange exchange, String message) throws IOException {
+        // skip у потока тела обходит границу Content-Length, поэтому остаток вычитывается через read
+        InputStream body = exchange.getRequestBody();
+        byte[] buffer = new byte[DRAIN_BUFFER_SIZE];
+        long drained = 0;
+        int read;
+        while (drained < MAX_DRAIN_SIZE && (read = body.read(buffer)) != -1) {
+            drained += read;
+        }
+        sendText(exchange, message, 413);
+    }
+
+    protected void sendGone(HttpExchange exchange, String message) throws IOException {
+        sendText(exchange, message, 410);
+    }
+
     protected void sendBadRequest(HttpExchange exchange, String message) throws IOException {
         sendText(exchange, message, 400);
     }
@@ -66,14 +235,196 @@ public class BaseHttpHandler {
         }
     }
 
-    protected int getValidId(HttpExchange exchange) throws IOException {
-        String[] path = exchange.getRequestURI().getPath().split("/");
-        int id = -1;
+    // Ответ сериализуется сразу в тело запроса кусками, без промежуточной строки и массива байтов.
+    // Писатель создаётся тем же gson, поэтому результат совпадает с gson.toJson
+    protected void streamJson(HttpExchange exchange, Object value) throws IOException {
+        streamJson(exchange, value, 200);
+    }
+
+    protected void streamJson(HttpExchange exchange, Object value, int code) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/json;charset=utf-8");
+        exchange.sendResponseHeaders(code, 0);
+        try (JsonWriter writer = gson.newJsonWriter(new BufferedWriter(
+                new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), RESPONSE_BUFFER_SIZE))) {
+            gson.toJson(value, value.getClass(), writer);
+        }
+    }
+
+    // Отметка кэша берётся до чтения задач из менеджера и передаётся в sendTask, sendTasks и sendPage:
+    // задача, изменённая после неё, сериализуется заново и в кэш не попадает
+    protected long cacheStamp() {
+        return jsonCache != null ? jsonCache.stamp() : 0;
+    }
+
+    // С кэшем готовые байты задачи пишутся в ответ без сериализации
+    protected void sendTask(HttpExchange exchange, Task task, long stamp) throws IOException {
+        if (jsonCache == null) {
+            sendJson(exchange, gson.toJson(task));
+            return;
+        }
+        byte[] json = jsonCache.toJson(task, stamp);
+        try (OutputStream os = exchange.getResponseBody()) {
+            exchange.getResponseHeaders().add("Content-Type", "application/json;charset=utf-8");
+            exchange.sendResponseHeaders(200, json.length);
+            os.write(json);
+        }
+    }
+
+    // Список собирается из закэшированных фрагментов задач
+    protected void sendTasks(HttpExchange exchange, Collection<? extends Task> tasks, long stamp) throws IOException {
+        if (jsonCache == null) {
+            streamJson(exchange, tasks);
+            return;
+        }
+        exchange.getResponseHeaders().add("Content-Type", "application/json;charset=utf-8");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream os = new BufferedOutputStream(exchange.getResponseBody(), RESPONSE_BUFFER_SIZE)) {
+            jsonCache.writeList(os, tasks, stamp);
+        }
+    }
+
+    // Без отметки кэш не используется: так отдаются прежние версии задач из истории
+    protected void sendTasks(HttpExchange exchange, Collection<? extends Task> tasks) throws IOException {
+        streamJson(exchange, tasks);
+    }
+
+    // Заголовок X-Next-Cursor содержит id последней задачи полной страницы для запроса следующей через after
+    protected void sendPage(HttpExchange exchange, List<? extends Task> page, int limit, long stamp)
+            throws IOException {
+        addNextCursor(exchange, page, limit);
+        sendTasks(exchange, page, stamp);
+    }
+
+    protected void sendPage(HttpExchange exchange, List<? extends Task> page, int limit) throws IOException {
+        addNextCursor(exchange, page, limit);
+        sendTasks(exchange, page);
+    }
+
+    private static void addNextCursor(HttpExchange exchange, List<? extends Task> page, int limit) {
+        if (page.size() == limit) {
+            exchange.getResponseHeaders().add("X-Next-Cursor", String.valueOf(page.getLast().getId()));
+        }
+    }
+
+    // ETag строится из версии коллекции и экземпляра менеджера, поэтому после перезапуска не совпадёт со старым.
+    // Версия читается до данных: изменение между ними приведёт лишь к повторной загрузке клиентом
+    protected boolean sendNotModified(HttpExchange exchange, TaskCollection collection) throws IOException {
+        String etag = "\"" + Integer.toHexString(System.identityHashCode(taskManager)) + "-"
+                + taskManager.getVersion(collection) + "\"";
+        exchange.getResponseHeaders().set("ETag", etag);
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    protected Map<String, String> getQueryParams(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null || query.isEmpty()) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            String name = separator < 0 ? pair : pair.substring(0, separator);
+            String value = separator < 0 ? "" : pair.substring(separator + 1);
+            params.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    protected int getIntParam(Map<String, String> params, String name, int defaultValue, int min, int max) {
+        String value = params.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
         try {
-            id = Integer.parseInt(path[2]);
+            int result = Integer.parseInt(value);
+            if (result >= min && result <= max) {
+                return result;
+            }
         } catch (NumberFormatException e) {
+            // сообщение об ошибке формируется ниже
+        }
+        throw new IllegalArgumentException("Некорректное значение параметра " + name + ": " + value);
+    }
+
+    protected LocalDateTime getDateTimeParam(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value, Task.DATE_TIME_FORMATTER);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Некорректное значение параметра " + name + ": " + value);
+        }
+    }
+
+    protected <E extends Enum<E>> E getEnumParam(Map<String, String> params, String name, Class<E> type) {
+        String value = params.get(name);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Некорректное значение параметра " + name + ": " + value);
+        }
+    }
+
+    // id уже разобран маршрутизатором, здесь остаётся только ответить 400 на некорректное значение
+    protected int getValidId(HttpExchange exchange, Router.Route route) throws IOException {
+        if (route.id() == Router.INVALID_ID) {
             sendBadRequest(exchange, "Некорректный id");
         }
-        return id;
+        return route.id();
+    }
+
+    private static class LimitedInputStream extends FilterInputStream {
+        private final long limit;
+        private long remaining;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+            this.remaining = limit;
+        }
+
+        private int count(int read) {
+            if (read > 0) {
+                remaining -= read;
+                if (remaining < 0) {
+                    throw new PayloadTooLargeException("Размер тела запроса превышает " + limit + " байт");
+                }
+            }
+            return read;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value != -1) {
+                count(1);
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            return count(super.read(buffer, offset, length));
+        }
     }
 }
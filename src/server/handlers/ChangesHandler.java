@@ -0,0 +1,88 @@
+package server.handlers;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import enums.Endpoint;
+import exceptions.ChangesExpiredException;
+import managers.ChangeFeed;
+import managers.TaskManager;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// GET /changes?since=N&limit=M&wait=S - изменения после N. При wait ответ ждёт первого изменения
+// до S секунд. В ответе last - номер, который нужно передать в since следующего запроса.
+// Ждущий запрос держит поток и разрешение пула, поэтому одновременно ждут не больше maxWaiters
+// запросов, а остальные отвечают сразу, как без wait
+public class ChangesHandler extends BaseHttpHandler implements HttpHandler {
+    private static final Router ROUTER = new Router()
+            .add("GET", "/changes", Endpoint.GET_ALL);
+
+    private final ChangeFeed changeFeed;
+    private final int maxWaitSeconds;
+    private final Semaphore waiters;
+
+    // maxWaitSeconds = 0 отключает длинный опрос, например когда запросы обрабатывает единственный поток
+    public ChangesHandler(TaskManager taskManager, ChangeFeed changeFeed, int maxWaitSeconds, int maxWaiters) {
+        super(taskManager);
+        this.changeFeed = changeFeed;
+        this.maxWaitSeconds = maxWaitSeconds;
+        this.waiters = new Semaphore(maxWaiters);
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String requestPath = exchange.getRequestURI().getPath();
+
+        if (ROUTER.resolve(method, requestPath).endpoint() != Endpoint.GET_ALL) {
+            sendBadRequest(exchange, "Данный запрос не может быть обработан." +
+                    " Повторите попытку, изменив запрос");
+            return;
+        }
+        try {
+            Map<String, String> params = getQueryParams(exchange);
+            long since = getLongParam(params, "since");
+            int limit = getIntParam(params, "limit", DEFAULT_PAGE_SIZE, 1, MAX_PAGE_SIZE);
+            int wait = Math.min(getIntParam(params, "wait", 0, 0, Integer.MAX_VALUE), maxWaitSeconds);
+            List<ChangeFeed.Change> changes;
+            if (wait > 0 && waiters.tryAcquire()) {
+                try {
+                    changes = changeFeed.await(since, limit, wait, TimeUnit.SECONDS);
+                } finally {
+                    waiters.release();
+                }
+            } else {
+                changes = changeFeed.since(since, limit);
+            }
+            long last = changes.isEmpty() ? since : changes.getLast().sequence();
+            streamJson(exchange, new ChangesPage(last, changes));
+        } catch (IllegalArgumentException e) {
+            sendBadRequest(exchange, e.getMessage());
+        } catch (ChangesExpiredException e) {
+            sendGone(exchange, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            sendError(exchange, "Ожидание изменений прервано");
+        }
+    }
+
+    private long getLongParam(Map<String, String> params, String name) {
+        String value = params.getOrDefault(name, "0");
+        try {
+            long result = Long.parseLong(value);
+            if (result >= 0) {
+                return result;
+            }
+        } catch (NumberFormatException e) {
+            // сообщение об ошибке формируется ниже
+        }
+        throw new IllegalArgumentException("Некорректное значение параметра " + name + ": " + value);
+    }
+
+    private record ChangesPage(long last, List<ChangeFeed.Change> changes) {
+    }
+}
@@ -4,86 +4,114 @@ import com.google.gson.JsonSyntaxException;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import enums.Endpoint;
+import enums.TaskCollection;
+import enums.TaskType;
 import exceptions.ManagerSaveException;
 import exceptions.NotFoundException;
+import exceptions.PayloadTooLargeException;
 import exceptions.UpdateEpicTimeException;
 import managers.TaskManager;
 import tasks.Epic;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.util.regex.Pattern;
 
 public class EpicHandler extends BaseHttpHandler implements HttpHandler {
+    private static final Router ROUTER = new Router()
+            .add("GET", "/epics", Endpoint.GET_ALL)
+            .add("GET", "/epics/{id}", Endpoint.GET_BY_ID)
+            .add("GET", "/epics/{id}/subtasks", Endpoint.GET_SUBLIST_BY_ID)
+            .add("POST", "/epics", Endpoint.POST_ADD)
+            .add("POST", "/epics/{id}", Endpoint.POST_UPDATE)
+            .add("POST", "/epics/batch", Endpoint.POST_BATCH)
+            .add("DELETE", "/epics", Endpoint.DELETE_ALL)
+            .add("DELETE", "/epics/{id}", Endpoint.DELETE_BY_ID);
 
     public EpicHandler(TaskManager taskManager) {
         super(taskManager);
     }
 
+    public EpicHandler(TaskManager taskManager, int maxBodySize) {
+        super(taskManager, maxBodySize);
+    }
+
+    public EpicHandler(TaskManager taskManager, int maxBodySize, JsonCache jsonCache) {
+        super(taskManager, maxBodySize, jsonCache);
+    }
+
     @Override
     public void handle(HttpExchange exchange) throws IOException {
         String method = exchange.getRequestMethod();
         String requestPath = exchange.getRequestURI().getPath();
-        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
-        Endpoint endpoint = getEndpoint(requestPath, method);
+        Router.Route route = ROUTER.resolve(method, requestPath);
 
-        switch (endpoint) {
+        switch (route.endpoint()) {
             case GET_ALL -> handleGetAllEpics(exchange);
-            case GET_BY_ID -> handleGetEpicById(exchange);
-            case GET_SUBLIST_BY_ID -> handleGetSubtasksByEpicId(exchange);
-            case POST_ADD -> handleAddEpic(exchange, body);
-            case POST_UPDATE -> handleUpdateEpic(exchange, body);
+            case GET_BY_ID -> handleGetEpicById(exchange, route);
+            case GET_SUBLIST_BY_ID -> handleGetSubtasksByEpicId(exchange, route);
+            case POST_ADD -> handleAddEpic(exchange);
+            case POST_UPDATE -> handleUpdateEpic(exchange, route);
+            case POST_BATCH -> handleAddBatch(exchange, Epic.class);
             case DELETE_ALL -> handleDeleteAllEpics(exchange);
-            case DELETE_BY_ID -> handleDeleteEpicById(exchange);
+            case DELETE_BY_ID -> handleDeleteEpicById(exchange, route);
             case UNKNOWN -> sendBadRequest(exchange, "Данный запрос не может быть обработан." +
                     " Повторите попытку, изменив запрос");
         }
     }
 
     private void handleGetAllEpics(HttpExchange exchange) throws IOException {
-        sendJson(exchange, gson.toJson(taskManager.getListOfEpics()));
+        if (handleQuery(exchange, TaskType.EPIC) || sendNotModified(exchange, TaskCollection.EPICS)) {
+            return;
+        }
+        long stamp = cacheStamp();
+        sendTasks(exchange, taskManager.getListOfEpics(), stamp);
     }
 
-    private void handleGetEpicById(HttpExchange exchange) throws IOException {
+    private void handleGetEpicById(HttpExchange exchange, Router.Route route) throws IOException {
         try {
-            int id = getValidId(exchange);
-            if (id != -1) sendJson(exchange, gson.toJson(taskManager.getEpic(id)));
+            int id = getValidId(exchange, route);
+            long stamp = cacheStamp();
+            if (id != -1) sendTask(exchange, taskManager.getEpic(id), stamp);
         } catch (NotFoundException e) {
             sendNotFound(exchange, e.getMessage());
         }
     }
 
-    private void handleGetSubtasksByEpicId(HttpExchange exchange) throws IOException {
+    private void handleGetSubtasksByEpicId(HttpExchange exchange, Router.Route route) throws IOException {
         try {
-            int id = getValidId(exchange);
-            if (id != -1) sendJson(exchange, gson.toJson(taskManager.getSubtasksByEpicID(id)));
+            int id = getValidId(exchange, route);
+            long stamp = cacheStamp();
+            if (id != -1) sendTasks(exchange, taskManager.getSubtasksByEpicID(id), stamp);
         } catch (NotFoundException e) {
             sendNotFound(exchange, e.getMessage());
         }
     }
 
-    private void handleAddEpic(HttpExchange exchange, String body) throws IOException {
+    private void handleAddEpic(HttpExchange exchange) throws IOException {
         try {
-            Epic epic = gson.fromJson(body, Epic.class);
+            Epic epic = readJson(exchange, Epic.class);
             taskManager.addEpic(epic);
             sendCreated(exchange);
         } catch (JsonSyntaxException e) {
             sendBadRequest(exchange, "Переданные данные невалидны для создания эпика");
+        } catch (PayloadTooLargeException e) {
+            sendPayloadTooLarge(exchange, e.getMessage());
         } catch (UpdateEpicTimeException | ManagerSaveException e) {
             sendError(exchange, e.getMessage());
         }
     }
 
-    private void handleUpdateEpic(HttpExchange exchange, String body) throws IOException {
+    private void handleUpdateEpic(HttpExchange exchange, Router.Route route) throws IOException {
         try {
-            int id = getValidId(exchange);
+            int id = getValidId(exchange, route);
             if (id != -1) {
-                Epic epic = gson.fromJson(body, Epic.class);
+                Epic epic = readJson(exchange, Epic.class);
                 taskManager.updateEpic(epic);
                 sendCreated(exchange);
             }
         } catch (JsonSyntaxException e) {
             sendBadRequest(exchange, "Переданные данные невалидны для создания эпика");
+        } catch (PayloadTooLargeException e) {
+            sendPayloadTooLarge(exchange, e.getMessage());
         } catch (NotFoundException e) {
             sendNotFound(exchange, e.getMessage());
         } catch (UpdateEpicTimeException | ManagerSaveException e) {
@@ -100,9 +128,9 @@ public class EpicHandler extends BaseHttpHandler implements HttpHandler {
         }
     }
 
-    private void handleDeleteEpicById(HttpExchange exchange) throws IOException {
+    private void handleDeleteEpicById(HttpExchange exchange, Router.Route route) throws IOException {
         try {
-            int id = getValidId(exchange);
+            int id = getValidId(exchange, route);
             if (id != -1) {
                 taskManager.removeEpic(id);
                 sendOK(exchange);
@@ -113,21 +141,4 @@ public class EpicHandler extends BaseHttpHandler implements HttpHandler {
             sendError(exchange, e.getMessage());
         }
     }
-
-    private Endpoint getEndpoint(String requestPath, String requestMethod) {
-        switch (requestMethod) {
-            case "GET":
-                if (Pattern.matches("^/epics$", requestPath)) return Endpoint.GET_ALL;
-                if (Pattern.matches("^/epics/\\d+$", requestPath)) return Endpoint.GET_BY_ID;
-                if (Pattern.matches("^/epics/\\d+/subtasks$", requestPath)) return Endpoint.GET_SUBLIST_BY_ID;
-            case "POST":
-                if (Pattern.matches("^/epics$", requestPath)) return Endpoint.POST_ADD;
-                if (Pattern.matches("^/epics/\\d+$", requestPath)) return Endpoint.POST_UPDATE;
-            case "DELETE":
-                if (Pattern.matches("^/epics$", requestPath)) return Endpoint.DELETE_ALL;
-                if (Pattern.matches("^/epics/\\d+$", requestPath)) return Endpoint.DELETE_BY_ID;
-            default:
-                return Endpoint.UNKNOWN;
-        }
-    }
 }
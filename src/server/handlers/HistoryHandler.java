@@ -2,15 +2,21 @@ package server.handlers;
 
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
+import enums.Endpoint;
+import enums.TaskCollection;
+import exceptions.NotFoundException;
 import managers.TaskManager;
 import tasks.Task;
 
 import java.io.IOException;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.Map;
 
 public class HistoryHandler extends BaseHttpHandler implements HttpHandler {
+    private static final Router ROUTER = new Router()
+            .add("GET", "/history", Endpoint.GET_ALL);
 
+    // Кэш JSON не используется: история хранит прежние версии задач, а кэш - только текущие
     public HistoryHandler(TaskManager taskManager) {
         super(taskManager);
     }
@@ -20,12 +26,40 @@ public class HistoryHandler extends BaseHttpHandler implements HttpHandler {
         String method = exchange.getRequestMethod();
         String requestPath = exchange.getRequestURI().getPath();
 
-        if (!method.equals("GET") || !Pattern.matches("^/history$", requestPath)) {
+        if (ROUTER.resolve(method, requestPath).endpoint() != Endpoint.GET_ALL) {
             sendBadRequest(exchange, "Данный запрос не может быть обработан." +
                     " Повторите попытку, изменив запрос");
             return;
         }
-        List<Task> history = taskManager.getHistory();
-        sendJson(exchange, gson.toJson(history));
+        if (sendNotModified(exchange, TaskCollection.HISTORY)) {
+            return;
+        }
+        Map<String, String> params = getQueryParams(exchange);
+        if (params.isEmpty()) {
+            List<Task> history = taskManager.getHistory();
+            sendTasks(exchange, history);
+            return;
+        }
+        handleGetHistoryPage(exchange, params);
+    }
+
+    // offset/limit - постраничный доступ, after - курсор: id последней задачи предыдущей страницы
+    private void handleGetHistoryPage(HttpExchange exchange, Map<String, String> params) throws IOException {
+        try {
+            int limit = getIntParam(params, "limit", DEFAULT_PAGE_SIZE, 1, MAX_PAGE_SIZE);
+            List<Task> page;
+            if (params.containsKey("after")) {
+                int after = getIntParam(params, "after", 0, 1, Integer.MAX_VALUE);
+                page = taskManager.getHistoryAfter(after, limit);
+            } else {
+                int offset = getIntParam(params, "offset", 0, 0, Integer.MAX_VALUE);
+                page = taskManager.getHistory(offset, limit);
+            }
+            sendPage(exchange, page, limit);
+        } catch (IllegalArgumentException e) {
+            sendBadRequest(exchange, e.getMessage());
+        } catch (NotFoundException e) {
+            sendNotFound(exchange, e.getMessage());
+        }
     }
 }
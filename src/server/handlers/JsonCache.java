@@ -0,0 +1,115 @@
+package server.handlers;
+
+import com.google.gson.Gson;
+import enums.ChangeType;
+import enums.TaskType;
+import managers.TaskChangeListener;
+import managers.TaskManager;
+import tasks.Task;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Готовый JSON задач в UTF-8 по id. Каждое изменение задачи получает номер из общего счётчика
+// и заменяет запись меткой без JSON. Обработчик берёт отметку stamp() до чтения задач из менеджера:
+// JSON годится и сохраняется, только если задача не менялась после отметки. Объекты задач не хранятся,
+// поэтому прежние версии из истории сериализуются без кэша
+public class JsonCache {
+    private static final int DEFAULT_MAX_ENTRIES = 100_000;
+    private static final byte[] ARRAY_START = {'['};
+    private static final byte[] ARRAY_END = {']'};
+    private static final byte[] SEPARATOR = {','};
+
+    private final Gson gson;
+    private final TaskManager taskManager;
+    private final TaskChangeListener listener = this::onChange;
+    private final int maxEntries;
+    private final Map<Integer, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong changes = new AtomicLong();
+    // Номера изменений до этого уже вытеснены вместе с записями: заполнения со старой отметкой не сохраняются
+    private volatile long floor;
+
+    public JsonCache(TaskManager taskManager) {
+        this(taskManager, DEFAULT_MAX_ENTRIES);
+    }
+
+    public JsonCache(TaskManager taskManager, int maxEntries) {
+        this.gson = BaseHttpHandler.createGson();
+        this.taskManager = taskManager;
+        this.maxEntries = maxEntries;
+        taskManager.addChangeListener(listener);
+    }
+
+    // Отписывается от менеджера, который переживает сервер
+    public void close() {
+        taskManager.removeChangeListener(listener);
+        entries.clear();
+    }
+
+    public long stamp() {
+        return changes.get();
+    }
+
+    // task прочитан из менеджера после получения stamp
+    public byte[] toJson(Task task, long stamp) {
+        Entry cached = entries.get(task.getId());
+        if (cached != null && cached.json() != null && cached.changedAt() <= stamp) {
+            return cached.json();
+        }
+        byte[] json = gson.toJson(task).getBytes(StandardCharsets.UTF_8);
+        if (stamp < floor) {
+            return json;
+        }
+        Entry stored = entries.compute(task.getId(), (id, current) -> {
+            long changedAt = current != null ? current.changedAt() : 0;
+            return changedAt <= stamp ? new Entry(changedAt, json) : current;
+        });
+        // Кэш мог очиститься между проверкой границы и записью, тогда запись без метки изменения недостоверна
+        if (stamp < floor) {
+            entries.remove(task.getId(), stored);
+        } else {
+            trim();
+        }
+        return json;
+    }
+
+    // Совпадает с gson.toJson для списка: элементы через запятую без пробелов
+    public void writeList(OutputStream out, Collection<? extends Task> tasks, long stamp) throws IOException {
+        out.write(ARRAY_START);
+        boolean first = true;
+        for (Task task : tasks) {
+            if (!first) {
+                out.write(SEPARATOR);
+            }
+            out.write(toJson(task, stamp));
+            first = false;
+        }
+        out.write(ARRAY_END);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // Удаление тоже оставляет метку: иначе запрос, прочитавший задачу до удаления, вернул бы её в кэш
+    private void onChange(ChangeType change, TaskType type, int id) {
+        entries.put(id, new Entry(changes.incrementAndGet(), null));
+        trim();
+    }
+
+    // При переполнении кэш очищается целиком, а граница поднимается до текущего номера изменения
+    private void trim() {
+        if (entries.size() > maxEntries) {
+            floor = changes.get();
+            entries.clear();
+        }
+    }
+
+    private record Entry(long changedAt, byte[] json) {
+    }
+}
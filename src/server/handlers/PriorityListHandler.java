@@ -2,31 +2,88 @@ package server.handlers;
 
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
+import enums.Endpoint;
+import enums.TaskCollection;
+import exceptions.NotFoundException;
 import managers.TaskManager;
 import tasks.Task;
 
 import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.regex.Pattern;
 
 public class PriorityListHandler extends BaseHttpHandler implements HttpHandler {
+    private static final Router ROUTER = new Router()
+            .add("GET", "/prioritized", Endpoint.GET_ALL);
 
     public PriorityListHandler(TaskManager taskManager) {
         super(taskManager);
     }
 
+    public PriorityListHandler(TaskManager taskManager, JsonCache jsonCache) {
+        super(taskManager, DEFAULT_MAX_BODY_SIZE, jsonCache);
+    }
+
     @Override
     public void handle(HttpExchange exchange) throws IOException {
         String method = exchange.getRequestMethod();
         String requestPath = exchange.getRequestURI().getPath();
-        String[] path = exchange.getRequestURI().getPath().split("/");
 
-        if (!method.equals("GET") || !Pattern.matches("^/prioritized$", requestPath)) {
+        if (ROUTER.resolve(method, requestPath).endpoint() != Endpoint.GET_ALL) {
             sendBadRequest(exchange, "Данный запрос не может быть обработан." +
                     " Повторите попытку, изменив запрос");
             return;
         }
-        Set<Task> prioritizedTasks = taskManager.getPrioritizedTasks();
-        sendJson(exchange, gson.toJson(prioritizedTasks));
+        if (sendNotModified(exchange, TaskCollection.PRIORITIZED)) {
+            return;
+        }
+        Map<String, String> params = getQueryParams(exchange);
+        if (params.isEmpty()) {
+            long stamp = cacheStamp();
+            Set<Task> prioritizedTasks = taskManager.getPrioritizedTasks();
+            sendTasks(exchange, prioritizedTasks, stamp);
+            return;
+        }
+        handleGetPrioritizedPage(exchange, params);
+    }
+
+    // from/to ограничивают время начала задач, after - курсор: id последней задачи предыдущей страницы.
+    // Страница собирается обходом представления индекса, весь список не копируется
+    private void handleGetPrioritizedPage(HttpExchange exchange, Map<String, String> params) throws IOException {
+        try {
+            int limit = getIntParam(params, "limit", DEFAULT_PAGE_SIZE, 1, MAX_PAGE_SIZE);
+            int offset = getIntParam(params, "offset", 0, 0, Integer.MAX_VALUE);
+            LocalDateTime from = getDateTimeParam(params, "from");
+            LocalDateTime to = getDateTimeParam(params, "to");
+            long stamp = cacheStamp();
+            Set<Task> view;
+            if (params.containsKey("after")) {
+                view = taskManager.getPrioritizedTasksAfter(getIntParam(params, "after", 0, 1, Integer.MAX_VALUE));
+            } else {
+                view = taskManager.getPrioritizedTasks(from, to);
+            }
+
+            List<Task> page = new ArrayList<>();
+            Iterator<Task> iterator = view.iterator();
+            for (int skipped = 0; skipped < offset && iterator.hasNext(); skipped++) {
+                iterator.next();
+            }
+            while (iterator.hasNext() && page.size() < limit) {
+                Task task = iterator.next();
+                if (to != null && !task.getStartTime().isBefore(to)) {
+                    break;
+                }
+                page.add(task);
+            }
+            sendPage(exchange, page, limit, stamp);
+        } catch (IllegalArgumentException e) {
+            sendBadRequest(exchange, e.getMessage());
+        } catch (NotFoundException e) {
+            sendNotFound(exchange, e.getMessage());
+        }
     }
 }
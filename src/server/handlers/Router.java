@@ -0,0 +1,71 @@
+package server.handlers;
+
+import enums.Endpoint;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Таблица маршрутов строится один раз. Путь запроса разбирается за один проход: числовые сегменты
+// заменяются на {id}, а полученная форма вместе с методом ищется в таблице
+public class Router {
+    private static final String ID = "{id}";
+    public static final int INVALID_ID = -1;
+
+    private final Map<String, Endpoint> routes = new HashMap<>();
+
+    public Router add(String method, String path, Endpoint endpoint) {
+        routes.put(method + " " + path, endpoint);
+        return this;
+    }
+
+    public Route resolve(String method, String path) {
+        StringBuilder shape = new StringBuilder(method.length() + path.length() + 1).append(method).append(' ');
+        int id = INVALID_ID;
+        int segmentStart = 0;
+        while (segmentStart <= path.length()) {
+            int segmentEnd = path.indexOf('/', segmentStart);
+            if (segmentEnd < 0) {
+                segmentEnd = path.length();
+            }
+            if (isNumber(path, segmentStart, segmentEnd)) {
+                shape.append(ID);
+                id = parseId(path, segmentStart, segmentEnd);
+            } else {
+                shape.append(path, segmentStart, segmentEnd);
+            }
+            if (segmentEnd < path.length()) {
+                shape.append('/');
+            }
+            segmentStart = segmentEnd + 1;
+        }
+        return new Route(routes.getOrDefault(shape.toString(), Endpoint.UNKNOWN), id);
+    }
+
+    private static boolean isNumber(String path, int start, int end) {
+        if (start == end) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            char c = path.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Слишком большое для int число даёт INVALID_ID, обработчик отвечает на него 400
+    private static int parseId(String path, int start, int end) {
+        long id = 0;
+        for (int i = start; i < end; i++) {
+            id = id * 10 + (path.charAt(i) - '0');
+            if (id > Integer.MAX_VALUE) {
+                return INVALID_ID;
+            }
+        }
+        return (int) id;
+    }
+
+    public record Route(Endpoint endpoint, int id) {
+    }
+}
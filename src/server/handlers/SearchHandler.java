@@ -0,0 +1,48 @@
+package server.handlers;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import enums.Endpoint;
+import managers.TaskManager;
+
+import java.io.IOException;
+import java.util.Map;
+
+// GET /search?q=текст&offset=N&limit=M - задачи, эпики и подзадачи по убыванию релевантности
+public class SearchHandler extends BaseHttpHandler implements HttpHandler {
+    private static final Router ROUTER = new Router()
+            .add("GET", "/search", Endpoint.GET_ALL);
+
+    public SearchHandler(TaskManager taskManager) {
+        super(taskManager);
+    }
+
+    public SearchHandler(TaskManager taskManager, JsonCache jsonCache) {
+        super(taskManager, DEFAULT_MAX_BODY_SIZE, jsonCache);
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String requestPath = exchange.getRequestURI().getPath();
+
+        if (ROUTER.resolve(method, requestPath).endpoint() != Endpoint.GET_ALL) {
+            sendBadRequest(exchange, "Данный запрос не может быть обработан." +
+                    " Повторите попытку, изменив запрос");
+            return;
+        }
+        try {
+            Map<String, String> params = getQueryParams(exchange);
+            String text = params.get("q");
+            if (text == null || text.isBlank()) {
+                throw new IllegalArgumentException("Не задан текст поиска q");
+            }
+            int offset = getIntParam(params, "offset", 0, 0, Integer.MAX_VALUE);
+            int limit = getIntParam(params, "limit", DEFAULT_PAGE_SIZE, 1, MAX_PAGE_SIZE);
+            long stamp = cacheStamp();
+            sendTasks(exchange, taskManager.search(text, offset, limit), stamp);
+        } catch (IllegalArgumentException e) {
+            sendBadRequest(exchange, e.getMessage());
+        }
+    }
+}
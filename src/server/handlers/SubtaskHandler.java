@@ -4,62 +4,86 @@ import com.google.gson.JsonSyntaxException;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import enums.Endpoint;
+import enums.TaskCollection;
+import enums.TaskType;
 import exceptions.ManagerSaveException;
 import exceptions.NotFoundException;
+import exceptions.PayloadTooLargeException;
 import exceptions.TimeIntersectionException;
 import exceptions.UpdateEpicTimeException;
 import managers.TaskManager;
 import tasks.Subtask;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.util.regex.Pattern;
 
 public class SubtaskHandler extends BaseHttpHandler implements HttpHandler {
+    private static final Router ROUTER = new Router()
+            .add("GET", "/subtasks", Endpoint.GET_ALL)
+            .add("GET", "/subtasks/{id}", Endpoint.GET_BY_ID)
+            .add("POST", "/subtasks", Endpoint.POST_ADD)
+            .add("POST", "/subtasks/{id}", Endpoint.POST_UPDATE)
+            .add("POST", "/subtasks/batch", Endpoint.POST_BATCH)
+            .add("DELETE", "/subtasks", Endpoint.DELETE_ALL)
+            .add("DELETE", "/subtasks/{id}", Endpoint.DELETE_BY_ID);
 
     public SubtaskHandler(TaskManager taskManager) {
         super(taskManager);
     }
 
+    public SubtaskHandler(TaskManager taskManager, int maxBodySize) {
+        super(taskManager, maxBodySize);
+    }
+
+    public SubtaskHandler(TaskManager taskManager, int maxBodySize, JsonCache jsonCache) {
+        super(taskManager, maxBodySize, jsonCache);
+    }
+
     @Override
     public void handle(HttpExchange exchange) throws IOException {
         String method = exchange.getRequestMethod();
         String requestPath = exchange.getRequestURI().getPath();
-        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
-        Endpoint endpoint = getEndpoint(requestPath, method);
+        Router.Route route = ROUTER.resolve(method, requestPath);
 
-        switch (endpoint) {
+        switch (route.endpoint()) {
             case GET_ALL -> handleGetAllSubtasks(exchange);
-            case GET_BY_ID -> handleGetSubtaskById(exchange);
-            case POST_ADD -> handleAddSubtask(exchange, body);
-            case POST_UPDATE -> handleUpdateSubtask(exchange, body);
+            case GET_BY_ID -> handleGetSubtaskById(exchange, route);
+            case POST_ADD -> handleAddSubtask(exchange);
+            case POST_UPDATE -> handleUpdateSubtask(exchange, route);
+            case POST_BATCH -> handleAddBatch(exchange, Subtask.class);
             case DELETE_ALL -> handleDeleteAllSubtasks(exchange);
-            case DELETE_BY_ID -> handleDeleteSubtaskById(exchange);
+            case DELETE_BY_ID -> handleDeleteSubtaskById(exchange, route);
             case UNKNOWN -> sendBadRequest(exchange, "Данный запрос не может быть обработан." +
                     " Повторите попытку, изменив запрос");
         }
     }
 
     private void handleGetAllSubtasks(HttpExchange exchange) throws IOException {
-        sendJson(exchange, gson.toJson(taskManager.getListOfSubtasks()));
+        if (handleQuery(exchange, TaskType.SUBTASK) || sendNotModified(exchange, TaskCollection.SUBTASKS)) {
+            return;
+        }
+        long stamp = cacheStamp();
+        sendTasks(exchange, taskManager.getListOfSubtasks(), stamp);
     }
 
-    private void handleGetSubtaskById(HttpExchange exchange) throws IOException {
+    private void handleGetSubtaskById(HttpExchange exchange, Router.Route route) throws IOException {
         try {
-            int id = getValidId(exchange);
-            if (id != -1) sendJson(exchange, gson.toJson(taskManager.getSubtask(id)));
+            int id = getValidId(exchange, route);
+            long stamp = cacheStamp();
+            if (id != -1) sendTask(exchange, taskManager.getSubtask(id), stamp);
         } catch (NotFoundException e) {
             sendNotFound(exchange, e.getMessage());
         }
     }
 
-    private void handleAddSubtask(HttpExchange exchange, String body) throws IOException {
+    private void handleAddSubtask(HttpExchange exchange) throws IOException {
         try {
-            Subtask subtask = gson.fromJson(body, Subtask.class);
+            Subtask subtask = readJson(exchange, Subtask.class);
             taskManager.addSubtask(subtask);
             sendCreated(exchange);
         } catch (JsonSyntaxException e) {
             sendBadRequest(exchange, "Переданные данные невалидны для создания подзадачи");
+        } catch (PayloadTooLargeException e) {
+            sendPayloadTooLarge(exchange, e.getMessage());
         } catch (TimeIntersectionException e) {
             sendHasInteractions(exchange, e.getMessage());
         } catch (UpdateEpicTimeException | ManagerSaveException e) {
@@ -67,16 +91,18 @@ public class SubtaskHandler extends BaseHttpHandler implements HttpHandler {
         }
     }
 
-    private void handleUpdateSubtask(HttpExchange exchange, String body) throws IOException {
+    private void handleUpdateSubtask(HttpExchange exchange, Router.Route route) throws IOException {
         try {
-            int id = getValidId(exchange);
+            int id = getValidId(exchange, route);
             if (id != -1) {
-                Subtask subtask = gson.fromJson(body, Subtask.class);
+                Subtask subtask = readJson(exchange, Subtask.class);
                 taskManager.updateSubtask(subtask);
                 sendCreated(exchange);
             }
         } catch (JsonSyntaxException e) {
             sendBadRequest(exchange, "Переданные данные невалидны для создания подзадачи");
+        } catch (PayloadTooLargeException e) {
+            sendPayloadTooLarge(exchange, e.getMessage());
         } catch (NotFoundException e) {
             sendNotFound(exchange, e.getMessage());
         } catch (TimeIntersectionException e) {
@@ -95,9 +121,9 @@ public class SubtaskHandler extends BaseHttpHandler implements HttpHandler {
         }
     }
 
-    private void handleDeleteSubtaskById(HttpExchange exchange) throws IOException {
+    private void handleDeleteSubtaskById(HttpExchange exchange, Router.Route route) throws IOException {
         try {
-            int id = getValidId(exchange);
+            int id = getValidId(exchange, route);
             if (id != -1) {
                 taskManager.removeSubtask(id);
                 sendOK(exchange);
@@ -108,20 +134,4 @@ public class SubtaskHandler extends BaseHttpHandler implements HttpHandler {
             sendError(exchange, e.getMessage());
         }
     }
-
-    private Endpoint getEndpoint(String requestPath, String requestMethod) {
-        switch (requestMethod) {
-            case "GET":
-                if (Pattern.matches("^/subtasks$", requestPath)) return Endpoint.GET_ALL;
-                if (Pattern.matches("^/subtasks/\\d+$", requestPath)) return Endpoint.GET_BY_ID;
-            case "POST":
-                if (Pattern.matches("^/subtasks$", requestPath)) return Endpoint.POST_ADD;
-                if (Pattern.matches("^/subtasks/\\d+$", requestPath)) return Endpoint.POST_UPDATE;
-            case "DELETE":
-                if (Pattern.matches("^/subtasks$", requestPath)) return Endpoint.DELETE_ALL;
-                if (Pattern.matches("^/subtasks/\\d+$", requestPath)) return Endpoint.DELETE_BY_ID;
-            default:
-                return Endpoint.UNKNOWN;
-        }
-    }
 }
@@ -4,61 +4,85 @@ import com.google.gson.JsonSyntaxException;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import enums.Endpoint;
+import enums.TaskCollection;
+import enums.TaskType;
 import exceptions.ManagerSaveException;
 import exceptions.NotFoundException;
+import exceptions.PayloadTooLargeException;
 import exceptions.TimeIntersectionException;
 import managers.TaskManager;
 import tasks.Task;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.util.regex.Pattern;
 
 public class TaskHandler extends BaseHttpHandler implements HttpHandler {
+    private static final Router ROUTER = new Router()
+            .add("GET", "/tasks", Endpoint.GET_ALL)
+            .add("GET", "/tasks/{id}", Endpoint.GET_BY_ID)
+            .add("POST", "/tasks", Endpoint.POST_ADD)
+            .add("POST", "/tasks/{id}", Endpoint.POST_UPDATE)
+            .add("POST", "/tasks/batch", Endpoint.POST_BATCH)
+            .add("DELETE", "/tasks", Endpoint.DELETE_ALL)
+            .add("DELETE", "/tasks/{id}", Endpoint.DELETE_BY_ID);
 
     public TaskHandler(TaskManager taskManager) {
         super(taskManager);
     }
 
+    public TaskHandler(TaskManager taskManager, int maxBodySize) {
+        super(taskManager, maxBodySize);
+    }
+
+    public TaskHandler(TaskManager taskManager, int maxBodySize, JsonCache jsonCache) {
+        super(taskManager, maxBodySize, jsonCache);
+    }
+
     @Override
     public void handle(HttpExchange exchange) throws IOException {
         String method = exchange.getRequestMethod();
         String requestPath = exchange.getRequestURI().getPath();
-        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
-        Endpoint endpoint = getEndpoint(requestPath, method);
+        Router.Route route = ROUTER.resolve(method, requestPath);
 
-        switch (endpoint) {
+        switch (route.endpoint()) {
             case GET_ALL -> handleGetAllTasks(exchange);
-            case GET_BY_ID -> handleGetTaskById(exchange);
-            case POST_ADD -> handleAddTask(exchange, body);
-            case POST_UPDATE -> handleUpdateTask(exchange, body);
+            case GET_BY_ID -> handleGetTaskById(exchange, route);
+            case POST_ADD -> handleAddTask(exchange);
+            case POST_UPDATE -> handleUpdateTask(exchange, route);
+            case POST_BATCH -> handleAddBatch(exchange, Task.class);
             case DELETE_ALL -> handleDeleteAllTasks(exchange);
-            case DELETE_BY_ID -> handleDeleteTaskById(exchange);
+            case DELETE_BY_ID -> handleDeleteTaskById(exchange, route);
             case UNKNOWN -> sendBadRequest(exchange, "Данный запрос не может быть обработан." +
                     " Повторите попытку, изменив запрос");
         }
     }
 
     private void handleGetAllTasks(HttpExchange exchange) throws IOException {
-        sendJson(exchange, gson.toJson(taskManager.getListOfTasks()));
+        if (handleQuery(exchange, TaskType.TASK) || sendNotModified(exchange, TaskCollection.TASKS)) {
+            return;
+        }
+        long stamp = cacheStamp();
+        sendTasks(exchange, taskManager.getListOfTasks(), stamp);
     }
 
-    private void handleGetTaskById(HttpExchange exchange) throws IOException {
+    private void handleGetTaskById(HttpExchange exchange, Router.Route route) throws IOException {
         try {
-            int id = getValidId(exchange);
-            if (id != -1) sendJson(exchange, gson.toJson(taskManager.getTask(id)));
+            int id = getValidId(exchange, route);
+            long stamp = cacheStamp();
+            if (id != -1) sendTask(exchange, taskManager.getTask(id), stamp);
         } catch (NotFoundException e) {
             sendNotFound(exchange, e.getMessage());
         }
     }
 
-    private void handleAddTask(HttpExchange exchange, String body) throws IOException {
+    private void handleAddTask(HttpExchange exchange) throws IOException {
         try {
-            Task task = gson.fromJson(body, Task.class);
+            Task task = readJson(exchange, Task.class);
             taskManager.addTask(task);
             sendCreated(exchange);
         } catch (JsonSyntaxException e) {
             sendBadRequest(exchange, "Переданные данные невалидны для создания задачи");
+        } catch (PayloadTooLargeException e) {
+            sendPayloadTooLarge(exchange, e.getMessage());
         } catch (TimeIntersectionException e) {
             sendHasInteractions(exchange, e.getMessage());
         } catch (ManagerSaveException e) {
@@ -66,16 +90,18 @@ public class TaskHandler extends BaseHttpHandler implements HttpHandler {
         }
     }
 
-    private void handleUpdateTask(HttpExchange exchange, String body) throws IOException {
+    private void handleUpdateTask(HttpExchange exchange, Router.Route route) throws IOException {
         try {
-            int id = getValidId(exchange);
+            int id = getValidId(exchange, route);
             if (id != -1) {
-                Task task = gson.fromJson(body, Task.class);
+                Task task = readJson(exchange, Task.class);
                 taskManager.updateTask(task);
                 sendCreated(exchange);
             }
         } catch (JsonSyntaxException e) {
             sendBadRequest(exchange, "Переданные данные невалидны для создания задачи");
+        } catch (PayloadTooLargeException e) {
+            sendPayloadTooLarge(exchange, e.getMessage());
         } catch (NotFoundException e) {
             sendNotFound(exchange, e.getMessage());
         } catch (TimeIntersectionException e) {
@@ -94,9 +120,9 @@ public class TaskHandler extends BaseHttpHandler implements HttpHandler {
         }
     }
 
-    private void handleDeleteTaskById(HttpExchange exchange) throws IOException {
+    private void handleDeleteTaskById(HttpExchange exchange, Router.Route route) throws IOException {
         try {
-            int id = getValidId(exchange);
+            int id = getValidId(exchange, route);
             if (id != -1) {
                 taskManager.removeTask(id);
                 sendOK(exchange);
@@ -107,20 +133,4 @@ public class TaskHandler extends BaseHttpHandler implements HttpHandler {
             sendError(exchange, e.getMessage());
         }
     }
-
-    private Endpoint getEndpoint(String requestPath, String requestMethod) {
-        switch (requestMethod) {
-            case "GET":
-                if (Pattern.matches("^/tasks$", requestPath)) return Endpoint.GET_ALL;
-                if (Pattern.matches("^/tasks/\\d+$", requestPath)) return Endpoint.GET_BY_ID;
-            case "POST":
-                if (Pattern.matches("^/tasks$", requestPath)) return Endpoint.POST_ADD;
-                if (Pattern.matches("^/tasks/\\d+$", requestPath)) return Endpoint.POST_UPDATE;
-            case "DELETE":
-                if (Pattern.matches("^/tasks$", requestPath)) return Endpoint.DELETE_ALL;
-                if (Pattern.matches("^/tasks/\\d+$", requestPath)) return Endpoint.DELETE_BY_ID;
-            default:
-                return Endpoint.UNKNOWN;
-        }
-    }
 }
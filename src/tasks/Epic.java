@@ -1,51 +1,161 @@
 package tasks;
 
+import com.google.gson.annotations.JsonAdapter;
 import enums.TaskStatus;
 import enums.TaskType;
+import server.adapters.IntSetTypeAdapter;
+import utilities.IntSet;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
 
 public class Epic extends Task {
 
-    private List<Integer> subtaskIDs = new ArrayList<>();
+    // В JSON по-прежнему массив чисел subtaskIDs
+    @JsonAdapter(IntSetTypeAdapter.class)
+    private IntSet subtaskIDs = new IntSet();
+
+    // Агрегаты по подзадачам: счётчики статусов и мультимножества начал и окончаний.
+    // Поля transient, чтобы не попадать в JSON, и создаются лениво, так как Gson не вызывает конструктор
+    private transient int[] statusCounts;
+    private transient NavigableMap<LocalDateTime, Integer> subtaskStarts;
+    private transient NavigableMap<LocalDateTime, Integer> subtaskEnds;
 
     public Epic(int id, String taskName, String taskDescription, List<Integer> subtaskIDs) {
-        super(id, taskName, taskDescription, TaskStatus.IN_PROGRESS, null, null);
-        this.subtaskIDs = subtaskIDs;
+        super(id, taskName, taskDescription, TaskStatus.IN_PROGRESS, LocalDateTime.now(), Duration.ZERO);
+        this.subtaskIDs = toIntSet(subtaskIDs);
     }
 
     public Epic(String taskName, String taskDescription) {
-        super(taskName, taskDescription, TaskStatus.IN_PROGRESS, null, null);
+        super(0, taskName, taskDescription, TaskStatus.IN_PROGRESS, LocalDateTime.now(), Duration.ZERO);
     }
 
     public Epic(int id, String taskName, String taskDescription) {
-        super(id, taskName, taskDescription, TaskStatus.IN_PROGRESS, null, null);
+        super(id, taskName, taskDescription, TaskStatus.IN_PROGRESS, LocalDateTime.now(), Duration.ZERO);
+    }
+
+    // Копия эпика вместе со списком подзадач. Агрегаты не копируются и при необходимости пересчитываются
+    public Epic(Epic epic) {
+        super(epic.getId(), epic.getTaskName(), epic.getTaskDescription(), epic.getStatus(),
+                epic.getStartTime(), epic.getDuration());
+        this.subtaskIDs = IntSet.of(epic.subtaskIDs.toArray());
     }
 
     //Конструктор для теста эпика
     public Epic(int id, String taskName, String taskDescription, TaskStatus status) {
-        super(id, taskName, taskDescription, status, null, null);
+        super(id, taskName, taskDescription, status, LocalDateTime.now(), Duration.ZERO);
+    }
+
+    public void addSubtask(Subtask subtask) {
+        subtaskIDs.add(subtask.getId());
+        include(subtask);
+        updateAggregatedFields();
+    }
+
+    public void updateSubtask(Subtask oldSubtask, Subtask newSubtask) {
+        exclude(oldSubtask);
+        include(newSubtask);
+        updateAggregatedFields();
     }
 
-    public void removeSubtask(int id) {
-        subtaskIDs.remove(Integer.valueOf(id));
+    public void removeSubtask(Subtask subtask) {
+        subtaskIDs.remove(subtask.getId());
+        exclude(subtask);
+        updateAggregatedFields();
     }
 
     public void clearSubtasks() {
         subtaskIDs.clear();
+        resetAggregates();
+        updateAggregatedFields();
+    }
+
+    // Полный пересчёт агрегатов, когда подзадачи эпика заданы извне (новый объект эпика, загрузка из файла)
+    public void recalculate(Collection<Subtask> subtasks) {
+        resetAggregates();
+        for (Subtask subtask : subtasks) {
+            include(subtask);
+        }
+        updateAggregatedFields();
     }
 
+    // Копия в порядке добавления подзадач
     public List<Integer> getSubtaskIDs() {
-        return subtaskIDs;
+        List<Integer> ids = new ArrayList<>(subtaskIDs.size());
+        subtaskIDs.forEach(ids::add);
+        return ids;
+    }
+
+    public int[] getSubtaskIDArray() {
+        return subtaskIDs.toArray();
     }
 
     public void setSubtaskIDs(List<Integer> subtaskIDs) {
-        this.subtaskIDs = subtaskIDs;
+        this.subtaskIDs = toIntSet(subtaskIDs);
+    }
+
+    private static IntSet toIntSet(List<Integer> subtaskIDs) {
+        IntSet ids = new IntSet(subtaskIDs.size());
+        for (int id : subtaskIDs) {
+            ids.add(id);
+        }
+        return ids;
     }
 
     @Override
     public TaskType getType() {
         return TaskType.EPIC;
     }
+
+    private void include(Subtask subtask) {
+        if (statusCounts == null) {
+            resetAggregates();
+        }
+        statusCounts[subtask.getStatus().ordinal()]++;
+        subtaskStarts.merge(subtask.getStartTime(), 1, Integer::sum);
+        subtaskEnds.merge(subtask.getEndTime(), 1, Integer::sum);
+    }
+
+    private void exclude(Subtask subtask) {
+        if (statusCounts == null) {
+            resetAggregates();
+        }
+        if (statusCounts[subtask.getStatus().ordinal()] > 0) {
+            statusCounts[subtask.getStatus().ordinal()]--;
+        }
+        subtaskStarts.computeIfPresent(subtask.getStartTime(), (time, count) -> count > 1 ? count - 1 : null);
+        subtaskEnds.computeIfPresent(subtask.getEndTime(), (time, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private void resetAggregates() {
+        statusCounts = new int[TaskStatus.values().length];
+        subtaskStarts = new TreeMap<>();
+        subtaskEnds = new TreeMap<>();
+    }
+
+    private void updateAggregatedFields() {
+        int countAllSubtasks = 0;
+        for (int count : statusCounts) {
+            countAllSubtasks += count;
+        }
+
+        if (countAllSubtasks == 0 || statusCounts[TaskStatus.NEW.ordinal()] == countAllSubtasks) {
+            setStatus(TaskStatus.NEW);
+        } else if (statusCounts[TaskStatus.DONE.ordinal()] == countAllSubtasks) {
+            setStatus(TaskStatus.DONE);
+        } else {
+            setStatus(TaskStatus.IN_PROGRESS);
+        }
+
+        if (!subtaskStarts.isEmpty()) {
+            LocalDateTime epicStartTime = subtaskStarts.firstKey();
+            setStartTime(epicStartTime);
+            setDuration(Duration.between(epicStartTime, subtaskEnds.lastKey()));
+        }
+    }
 }
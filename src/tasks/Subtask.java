@@ -4,6 +4,9 @@ import com.google.gson.annotations.Expose;
 import enums.TaskStatus;
 import enums.TaskType;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+
 public class Subtask extends Task {
 
     @Expose
@@ -14,6 +17,12 @@ public class Subtask extends Task {
         this.epicID = epicID;
     }
 
+    public Subtask(int id, String taskName, String taskDescription, TaskStatus status, int epicID,
+                   LocalDateTime startTime, Duration duration) {
+        super(id, taskName, taskDescription, status, startTime, duration);
+        this.epicID = epicID;
+    }
+
     public Subtask(String taskName, String taskDescription, TaskStatus status, int epicID, String startTime, Integer duration) {
         super(taskName, taskDescription, status, startTime, duration);
         this.epicID = epicID;
@@ -39,6 +39,16 @@ public class Task {
         this.duration = (duration != null) ? Duration.ofMinutes(duration) : Duration.ofMinutes(0);
     }
 
+    public Task(int id, String taskName, String taskDescription, TaskStatus status,
+                LocalDateTime startTime, Duration duration) {
+        this.id = id;
+        this.taskName = (taskName != null) ? taskName : "";
+        this.taskDescription = (taskDescription != null) ? taskDescription : "";
+        this.status = (status != null) ? status : TaskStatus.NEW;
+        this.startTime = (startTime != null) ? startTime : LocalDateTime.now();
+        this.duration = (duration != null) ? duration : Duration.ofMinutes(0);
+    }
+
     public Task(String taskName, String taskDescription, TaskStatus status, String startTime, Integer duration) {
         this(0, taskName, taskDescription, status, startTime, duration);
     }
@@ -0,0 +1,463 @@
+package utilities;
+
+import enums.TaskStatus;
+import enums.TaskType;
+import tasks.Subtask;
+import tasks.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntPredicate;
+
+// Колоночное хранилище задач и подзадач: поля лежат в параллельных массивах примитивов по строке на задачу,
+// тексты - в общем пуле строк. Объект задачи создаётся при каждом чтении и не связан с хранилищем,
+// изменения попадают в него только через put. Эпики здесь не хранятся: их агрегаты меняются на месте
+public class ColumnarTaskStore<T extends Task> extends AbstractMap<Integer, T> implements IntMap<T> {
+    private static final byte HOLE = -1;
+    private static final int MIN_CAPACITY = 4;
+    private static final long NO_TIME = Long.MIN_VALUE;
+    private static final TaskType[] TYPES = TaskType.values();
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    private final StringPool strings;
+    private final PositionTable positions;
+    private int end;
+    private int size;
+
+    private int[] ids;
+    private byte[] types;
+    private byte[] statuses;
+    private long[] startSeconds;
+    private int[] startNanos;
+    private long[] durationSeconds;
+    private int[] epicIDs;
+    private int[] names;
+    private int[] descriptions;
+
+    public ColumnarTaskStore() {
+        this(new StringPool());
+    }
+
+    // Хранилища задач и подзадач одного менеджера могут делить пул строк
+    public ColumnarTaskStore(StringPool strings) {
+        this.strings = strings;
+        this.positions = new PositionTable(MIN_CAPACITY);
+        allocate(MIN_CAPACITY);
+    }
+
+    private void allocate(int capacity) {
+        ids = new int[capacity];
+        types = new byte[capacity];
+        statuses = new byte[capacity];
+        startSeconds = new long[capacity];
+        startNanos = new int[capacity];
+        durationSeconds = new long[capacity];
+        epicIDs = new int[capacity];
+        names = new int[capacity];
+        descriptions = new int[capacity];
+    }
+
+    private void grow(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        types = Arrays.copyOf(types, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+        startSeconds = Arrays.copyOf(startSeconds, capacity);
+        startNanos = Arrays.copyOf(startNanos, capacity);
+        durationSeconds = Arrays.copyOf(durationSeconds, capacity);
+        epicIDs = Arrays.copyOf(epicIDs, capacity);
+        names = Arrays.copyOf(names, capacity);
+        descriptions = Arrays.copyOf(descriptions, capacity);
+    }
+
+    // Строка задачи с данным id или -1
+    private int row(int id) {
+        int cell = positions.find(id, ids);
+        return cell >= 0 ? positions.position(cell) : -1;
+    }
+
+    @Override
+    public T get(int id) {
+        int row = row(id);
+        return row >= 0 ? view(row) : null;
+    }
+
+    @Override
+    public boolean containsKey(int id) {
+        return row(id) >= 0;
+    }
+
+    @Override
+    public T put(int id, T task) {
+        if (task.getType() == TaskType.EPIC) {
+            throw new IllegalArgumentException("Эпики не хранятся в колоночном хранилище");
+        }
+        int row = row(id);
+        if (row >= 0) {
+            T oldTask = view(row);
+            int oldName = names[row];
+            int oldDescription = descriptions[row];
+            write(row, id, task);
+            strings.release(oldName);
+            strings.release(oldDescription);
+            return oldTask;
+        }
+        if (end == ids.length) {
+            if (size < end / 2) {
+                compact();
+            } else {
+                grow(ids.length * 2);
+            }
+        }
+        if (positions.isFull()) {
+            rehash(size + 1);
+        }
+        write(end, id, task);
+        positions.insert(id, end);
+        end++;
+        size++;
+        return null;
+    }
+
+    private void write(int row, int id, Task task) {
+        ids[row] = id;
+        types[row] = (byte) task.getType().ordinal();
+        statuses[row] = (byte) (task.getStatus() != null ? task.getStatus().ordinal() : HOLE);
+        LocalDateTime startTime = task.getStartTime();
+        startSeconds[row] = startTime != null ? startTime.toEpochSecond(ZoneOffset.UTC) : NO_TIME;
+        startNanos[row] = startTime != null ? startTime.getNano() : 0;
+        durationSeconds[row] = task.getDuration() != null ? task.getDuration().getSeconds() : NO_TIME;
+        epicIDs[row] = task instanceof Subtask subtask ? subtask.getEpicID() : 0;
+        names[row] = strings.acquire(task.getTaskName());
+        descriptions[row] = strings.acquire(task.getTaskDescription());
+    }
+
+    @SuppressWarnings("unchecked")
+    private T view(int row) {
+        TaskStatus status = statuses[row] != HOLE ? STATUSES[statuses[row]] : null;
+        LocalDateTime startTime = startSeconds[row] != NO_TIME
+                ? LocalDateTime.ofEpochSecond(startSeconds[row], startNanos[row], ZoneOffset.UTC) : null;
+        Duration duration = durationSeconds[row] != NO_TIME ? Duration.ofSeconds(durationSeconds[row]) : null;
+        String name = strings.get(names[row]);
+        String description = strings.get(descriptions[row]);
+        if (TYPES[types[row]] == TaskType.SUBTASK) {
+            return (T) new Subtask(ids[row], name, description, status, epicIDs[row], startTime, duration);
+        }
+        return (T) new Task(ids[row], name, description, status, startTime, duration);
+    }
+
+    @Override
+    public T remove(int id) {
+        int cell = positions.find(id, ids);
+        if (cell < 0) {
+            return null;
+        }
+        T oldTask = removeCell(cell);
+        if (size == 0) {
+            clear();
+        } else if (size < end / 4) {
+            compact();
+        }
+        return oldTask;
+    }
+
+    private T removeCell(int cell) {
+        int row = positions.position(cell);
+        T oldTask = view(row);
+        releaseStrings(row);
+        types[row] = HOLE;
+        positions.delete(cell);
+        size--;
+        return oldTask;
+    }
+
+    // Задачи хранилищ, начинающиеся в [from, to) и принятые фильтром по id, в порядке списка приоритетов:
+    // по началу, окончанию и id. Границы со значением null не ограничивают выборку. Отбор и сортировка
+    // идут по массивам столбцов, объекты задач создаются только для строк выданной страницы
+    public static List<Task> startingBetween(List<? extends ColumnarTaskStore<?>> stores, LocalDateTime from,
+                                             LocalDateTime to, IntPredicate accepted, int offset, int limit) {
+        long fromSeconds = from != null ? from.toEpochSecond(ZoneOffset.UTC) : Long.MIN_VALUE;
+        int fromNanos = from != null ? from.getNano() : 0;
+        long toSeconds = to != null ? to.toEpochSecond(ZoneOffset.UTC) : Long.MAX_VALUE;
+        int toNanos = to != null ? to.getNano() : 0;
+        int total = 0;
+        for (ColumnarTaskStore<?> store : stores) {
+            total += store.size;
+        }
+        int[] owners = new int[total];
+        int[] rows = new int[total];
+        long[] starts = new long[total];
+        long minStart = Long.MAX_VALUE;
+        long maxStart = Long.MIN_VALUE;
+        int count = 0;
+        for (int owner = 0; owner < stores.size(); owner++) {
+            ColumnarTaskStore<?> store = stores.get(owner);
+            for (int row = 0; row < store.end; row++) {
+                long start = store.startSeconds[row];
+                int nanos = store.startNanos[row];
+                if (store.types[row] == HOLE || start == NO_TIME
+                        || start < fromSeconds || start == fromSeconds && nanos < fromNanos
+                        || start > toSeconds || start == toSeconds && nanos >= toNanos
+                        || !accepted.test(store.ids[row])) {
+                    continue;
+                }
+                owners[count] = owner;
+                rows[count] = row;
+                starts[count] = start;
+                minStart = Math.min(minStart, start);
+                maxStart = Math.max(maxStart, start);
+                count++;
+            }
+        }
+
+        int[] buffer = new int[count];
+        int[] order = sortByStart(starts, count, minStart, maxStart, buffer);
+        // Внутри одной секунды порядок уточняется по наносекундам, окончанию и id
+        IntBinaryOperator comparator = (first, second) ->
+                compareRows(stores.get(owners[first]), rows[first], stores.get(owners[second]), rows[second]);
+        for (int runStart = 0, runEnd; runStart < count; runStart = runEnd) {
+            runEnd = runStart + 1;
+            while (runEnd < count && starts[order[runEnd]] == starts[order[runStart]]) {
+                runEnd++;
+            }
+            mergeSort(order, buffer, runStart, runEnd, comparator);
+        }
+
+        int pageEnd = (int) Math.min(count, (long) offset + limit);
+        List<Task> page = new ArrayList<>(Math.max(pageEnd - offset, 0));
+        for (int i = offset; i < pageEnd; i++) {
+            ColumnarTaskStore<?> store = stores.get(owners[order[i]]);
+            page.add(store.view(rows[order[i]]));
+        }
+        return page;
+    }
+
+    // Номера по возрастанию секунды начала. Номер кладётся в младшие биты ключа, и сортируется массив long.
+    // Если разброс времени не помещается в оставшиеся биты, сортировка идёт слиянием
+    private static int[] sortByStart(long[] starts, int count, long minStart, long maxStart, int[] buffer) {
+        int[] order = new int[count];
+        int indexBits = 32 - Integer.numberOfLeadingZeros(count);
+        long spread = maxStart - minStart;
+        if (spread >= 0 && spread < 1L << (Long.SIZE - 1 - indexBits)) {
+            long[] keys = new long[count];
+            for (int i = 0; i < count; i++) {
+                keys[i] = (starts[i] - minStart) << indexBits | i;
+            }
+            Arrays.sort(keys);
+            long indexMask = (1L << indexBits) - 1;
+            for (int i = 0; i < count; i++) {
+                order[i] = (int) (keys[i] & indexMask);
+            }
+            return order;
+        }
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        mergeSort(order, buffer, 0, count, (first, second) -> Long.compare(starts[first], starts[second]));
+        return order;
+    }
+
+    private static int compareRows(ColumnarTaskStore<?> first, int firstRow, ColumnarTaskStore<?> second,
+                                   int secondRow) {
+        int result = Long.compare(first.startSeconds[firstRow], second.startSeconds[secondRow]);
+        if (result == 0) {
+            result = Integer.compare(first.startNanos[firstRow], second.startNanos[secondRow]);
+        }
+        if (result == 0) {
+            result = Long.compare(first.startSeconds[firstRow] + first.endShift(firstRow),
+                    second.startSeconds[secondRow] + second.endShift(secondRow));
+        }
+        return result != 0 ? result : Integer.compare(first.ids[firstRow], second.ids[secondRow]);
+    }
+
+    private long endShift(int row) {
+        return durationSeconds[row] != NO_TIME ? durationSeconds[row] : 0;
+    }
+
+    // Устойчивая сортировка номеров без упаковки в объекты
+    private static void mergeSort(int[] items, int[] buffer, int from, int to, IntBinaryOperator comparator) {
+        if (to - from < 2) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        mergeSort(items, buffer, from, middle, comparator);
+        mergeSort(items, buffer, middle, to, comparator);
+        System.arraycopy(items, from, buffer, from, to - from);
+        for (int i = from, left = from, right = middle; i < to; i++) {
+            if (right == to || left < middle && comparator.applyAsInt(buffer[left], buffer[right]) <= 0) {
+                items[i] = buffer[left++];
+            } else {
+                items[i] = buffer[right++];
+            }
+        }
+    }
+
+    private void releaseStrings(int row) {
+        strings.release(names[row]);
+        strings.release(descriptions[row]);
+    }
+
+    @Override
+    public T get(Object key) {
+        return key instanceof Integer id ? get(id.intValue()) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Integer id && containsKey(id.intValue());
+    }
+
+    @Override
+    public T put(Integer key, T value) {
+        return put(key.intValue(), value);
+    }
+
+    @Override
+    public T remove(Object key) {
+        return key instanceof Integer id ? remove(id.intValue()) : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear() {
+        for (int row = 0; row < end; row++) {
+            if (types[row] != HOLE) {
+                releaseStrings(row);
+            }
+        }
+        end = 0;
+        size = 0;
+        positions.clear();
+    }
+
+    // Сдвигает строки к началу без смены порядка и заново строит таблицу
+    private void compact() {
+        int count = 0;
+        for (int row = 0; row < end; row++) {
+            if (types[row] == HOLE) {
+                continue;
+            }
+            ids[count] = ids[row];
+            types[count] = types[row];
+            statuses[count] = statuses[row];
+            startSeconds[count] = startSeconds[row];
+            startNanos[count] = startNanos[row];
+            durationSeconds[count] = durationSeconds[row];
+            epicIDs[count] = epicIDs[row];
+            names[count] = names[row];
+            descriptions[count] = descriptions[row];
+            count++;
+        }
+        end = count;
+        rehash(size);
+    }
+
+    private void rehash(int expectedSize) {
+        positions.reset(expectedSize);
+        for (int row = 0; row < end; row++) {
+            if (types[row] != HOLE) {
+                positions.insert(ids[row], row);
+            }
+        }
+    }
+
+    @Override
+    public Collection<T> values() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<T> iterator() {
+                return new RowIterator<>() {
+                    @Override
+                    T item(int row) {
+                        return view(row);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public Set<Map.Entry<Integer, T>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Map.Entry<Integer, T>> iterator() {
+                return new RowIterator<>() {
+                    @Override
+                    Map.Entry<Integer, T> item(int row) {
+                        return new SimpleImmutableEntry<>(ids[row], view(row));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    // Обход живых строк в порядке добавления
+    private abstract class RowIterator<E> implements Iterator<E> {
+        private int next = skipHoles(0);
+        private int last = -1;
+
+        private int skipHoles(int row) {
+            while (row < end && types[row] == HOLE) {
+                row++;
+            }
+            return row;
+        }
+
+        abstract E item(int row);
+
+        @Override
+        public boolean hasNext() {
+            return next < end;
+        }
+
+        @Override
+        public E next() {
+            if (next >= end) {
+                throw new NoSuchElementException();
+            }
+            last = next;
+            next = skipHoles(next + 1);
+            return item(last);
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0 || types[last] == HOLE) {
+                throw new IllegalStateException();
+            }
+            removeCell(positions.find(ids[last], ids));
+            last = -1;
+        }
+    }
+}
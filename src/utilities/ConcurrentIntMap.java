@@ -0,0 +1,29 @@
+package utilities;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+// Вариант для многопоточного менеджера: ключи упаковываются, зато чтение идёт без блокировок
+public class ConcurrentIntMap<V> extends ConcurrentHashMap<Integer, V> implements IntMap<V> {
+    // Своих полей нет, сериализуется как ConcurrentHashMap
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public V get(int key) {
+        return super.get(key);
+    }
+
+    @Override
+    public V put(int key, V value) {
+        return super.put(key, value);
+    }
+
+    @Override
+    public V remove(int key) {
+        return super.remove(key);
+    }
+
+    @Override
+    public boolean containsKey(int key) {
+        return super.containsKey(key);
+    }
+}
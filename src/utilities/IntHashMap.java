@@ -0,0 +1,251 @@
+package utilities;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+// Отображение int -> V без упаковки ключей и без объекта Entry на элемент. Пары лежат подряд
+// в массивах ключей и значений в порядке добавления, удалённая пара помечается значением null.
+// Позиции пар хранятся в PositionTable, как в IntSet. Значения null не допускаются
+public class IntHashMap<V> extends AbstractMap<Integer, V> implements IntMap<V> {
+    private static final int MIN_CAPACITY = 4;
+
+    private int[] keys;
+    private Object[] values;
+    private int end;
+    private int size;
+    private final PositionTable positions;
+
+    public IntHashMap() {
+        this(MIN_CAPACITY);
+    }
+
+    public IntHashMap(int expectedSize) {
+        keys = new int[Math.max(expectedSize, MIN_CAPACITY)];
+        values = new Object[keys.length];
+        positions = new PositionTable(expectedSize);
+    }
+
+    // Позиция пары с данным ключом или -1
+    private int find(int key) {
+        int cell = positions.find(key, keys);
+        return cell >= 0 ? positions.position(cell) : -1;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int position = find(key);
+        return position >= 0 ? (V) values[position] : null;
+    }
+
+    @Override
+    public boolean containsKey(int key) {
+        return find(key) >= 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        Objects.requireNonNull(value);
+        int position = find(key);
+        if (position >= 0) {
+            V oldValue = (V) values[position];
+            values[position] = value;
+            return oldValue;
+        }
+        if (end == keys.length) {
+            if (size < end / 2) {
+                compact();
+            } else {
+                keys = Arrays.copyOf(keys, keys.length * 2);
+                values = Arrays.copyOf(values, keys.length);
+            }
+        }
+        if (positions.isFull()) {
+            rehash(size + 1);
+        }
+        keys[end] = key;
+        values[end] = value;
+        positions.insert(key, end);
+        end++;
+        size++;
+        return null;
+    }
+
+    @Override
+    public V remove(int key) {
+        int cell = positions.find(key, keys);
+        if (cell < 0) {
+            return null;
+        }
+        V oldValue = removeCell(cell);
+        if (size == 0) {
+            clear();
+        } else if (size < end / 4) {
+            compact();
+        }
+        return oldValue;
+    }
+
+    // Удаление без уплотнения, чтобы не сдвигать пары под работающим итератором
+    @SuppressWarnings("unchecked")
+    private V removeCell(int cell) {
+        int position = positions.position(cell);
+        V oldValue = (V) values[position];
+        values[position] = null;
+        positions.delete(cell);
+        size--;
+        return oldValue;
+    }
+
+    @Override
+    public V get(Object key) {
+        return key instanceof Integer id ? get(id.intValue()) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Integer id && containsKey(id.intValue());
+    }
+
+    @Override
+    public V put(Integer key, V value) {
+        return put(key.intValue(), value);
+    }
+
+    @Override
+    public V remove(Object key) {
+        return key instanceof Integer id ? remove(id.intValue()) : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(values, 0, end, null);
+        end = 0;
+        size = 0;
+        positions.clear();
+    }
+
+    // Сдвигает пары к началу без смены порядка и заново строит таблицу
+    private void compact() {
+        int count = 0;
+        for (int i = 0; i < end; i++) {
+            if (values[i] != null) {
+                keys[count] = keys[i];
+                values[count] = values[i];
+                count++;
+            }
+        }
+        Arrays.fill(values, count, end, null);
+        end = count;
+        rehash(size);
+    }
+
+    private void rehash(int expectedSize) {
+        positions.reset(expectedSize);
+        for (int i = 0; i < end; i++) {
+            if (values[i] != null) {
+                positions.insert(keys[i], i);
+            }
+        }
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<V> iterator() {
+                return new PositionIterator<>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    V item(int position) {
+                        return (V) values[position];
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public Set<Map.Entry<Integer, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Map.Entry<Integer, V>> iterator() {
+                return new PositionIterator<>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    Map.Entry<Integer, V> item(int position) {
+                        return new SimpleImmutableEntry<>(keys[position], (V) values[position]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    // Обход живых пар в порядке добавления
+    private abstract class PositionIterator<T> implements Iterator<T> {
+        private int next = skipHoles(0);
+        private int last = -1;
+
+        private int skipHoles(int position) {
+            while (position < end && values[position] == null) {
+                position++;
+            }
+            return position;
+        }
+
+        abstract T item(int position);
+
+        @Override
+        public boolean hasNext() {
+            return next < end;
+        }
+
+        @Override
+        public T next() {
+            if (next >= end) {
+                throw new NoSuchElementException();
+            }
+            last = next;
+            next = skipHoles(next + 1);
+            return item(last);
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0 || values[last] == null) {
+                throw new IllegalStateException();
+            }
+            removeCell(positions.find(keys[last], keys));
+            last = -1;
+        }
+    }
+}
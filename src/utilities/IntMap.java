@@ -0,0 +1,15 @@
+package utilities;
+
+import java.util.Map;
+
+// Отображение с ключами int. Перегрузки с примитивным ключом выбираются компилятором для аргумента int,
+// поэтому обращения по id не упаковывают ключ. Методы Map остаются для массовых операций
+public interface IntMap<V> extends Map<Integer, V> {
+    V get(int key);
+
+    V put(int key, V value);
+
+    V remove(int key);
+
+    boolean containsKey(int key);
+}
@@ -0,0 +1,144 @@
+package utilities;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+// Множество int без упаковки, сохраняющее порядок добавления. Элементы лежат подряд в массиве,
+// удалённые помечаются пропуском и вычищаются, когда пропуски начинают преобладать над живыми элементами.
+// Позиции элементов хранятся в PositionTable, поэтому add, remove и contains - O(1)
+public class IntSet {
+    private static final int HOLE = Integer.MIN_VALUE;
+    private static final int MIN_CAPACITY = 4;
+
+    private int[] elements;
+    private int end;
+    private int size;
+    private final PositionTable positions;
+
+    public IntSet() {
+        this(MIN_CAPACITY);
+    }
+
+    public IntSet(int expectedSize) {
+        elements = new int[Math.max(expectedSize, MIN_CAPACITY)];
+        positions = new PositionTable(expectedSize);
+    }
+
+    public static IntSet of(int... values) {
+        IntSet set = new IntSet(values.length);
+        for (int value : values) {
+            set.add(value);
+        }
+        return set;
+    }
+
+    public boolean contains(int value) {
+        return value != HOLE && positions.find(value, elements) >= 0;
+    }
+
+    public boolean add(int value) {
+        if (value == HOLE) {
+            throw new IllegalArgumentException("Значение " + value + " не может храниться в множестве");
+        }
+        if (positions.find(value, elements) >= 0) {
+            return false;
+        }
+        if (end == elements.length) {
+            if (size < end / 2) {
+                compact();
+            } else {
+                elements = Arrays.copyOf(elements, elements.length * 2);
+            }
+        }
+        if (positions.isFull()) {
+            rehash(size + 1);
+        }
+        elements[end] = value;
+        positions.insert(value, end);
+        end++;
+        size++;
+        return true;
+    }
+
+    public boolean remove(int value) {
+        if (value == HOLE) {
+            return false;
+        }
+        int cell = positions.find(value, elements);
+        if (cell < 0) {
+            return false;
+        }
+        elements[positions.position(cell)] = HOLE;
+        positions.delete(cell);
+        size--;
+        if (size == 0) {
+            clear();
+        } else if (size < end / 4) {
+            compact();
+        }
+        return true;
+    }
+
+    public void clear() {
+        end = 0;
+        size = 0;
+        positions.clear();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < end; i++) {
+            if (elements[i] != HOLE) {
+                action.accept(elements[i]);
+            }
+        }
+    }
+
+    // Ссылки на массив и границы читаются один раз, чтобы чтение без блокировки
+    // во время изменения не вышло за пределы массива
+    public int[] toArray() {
+        int[] snapshot = elements;
+        int limit = Math.min(end, snapshot.length);
+        int[] result = new int[limit];
+        int count = 0;
+        for (int i = 0; i < limit; i++) {
+            if (snapshot[i] != HOLE) {
+                result[count++] = snapshot[i];
+            }
+        }
+        return count == limit ? result : Arrays.copyOf(result, count);
+    }
+
+    // Сдвигает живые элементы к началу без смены порядка и заново строит таблицу
+    private void compact() {
+        int count = 0;
+        for (int i = 0; i < end; i++) {
+            if (elements[i] != HOLE) {
+                elements[count++] = elements[i];
+            }
+        }
+        end = count;
+        rehash(size);
+    }
+
+    private void rehash(int expectedSize) {
+        positions.reset(expectedSize);
+        for (int i = 0; i < end; i++) {
+            if (elements[i] != HOLE) {
+                positions.insert(elements[i], i);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
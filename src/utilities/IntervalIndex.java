@@ -0,0 +1,199 @@
+package utilities;
+
+import enums.TaskType;
+import tasks.Task;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.IntFunction;
+
+public class IntervalIndex {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final NavigableMap<Slot, Task> slots;
+    private final IntMap<Slot> slotsByID;
+    private final IntFunction<Task> resolver;
+
+    public IntervalIndex() {
+        this(new TreeMap<>(), new IntHashMap<>(), null);
+    }
+
+    private IntervalIndex(NavigableMap<Slot, Task> slots, IntMap<Slot> slotsByID, IntFunction<Task> resolver) {
+        this.slots = slots;
+        this.slotsByID = slotsByID;
+        this.resolver = resolver;
+    }
+
+    // Вариант для многопоточного менеджера: чтение и обход без блокировок
+    public static IntervalIndex concurrent() {
+        return new IntervalIndex(new ConcurrentSkipListMap<>(), new ConcurrentIntMap<>(), null);
+    }
+
+    // Вариант для хранилища, которое создаёт объекты задач при чтении: индекс держит только интервалы,
+    // а задачи при обходе получает от resolver по id
+    public static IntervalIndex resolving(IntFunction<Task> resolver) {
+        return new IntervalIndex(new TreeMap<>(), new IntHashMap<>(), resolver);
+    }
+
+    public void add(Task task) {
+        Slot slot = Slot.of(task);
+        Slot oldSlot = slotsByID.put(slot.id(), slot);
+        if (oldSlot != null) {
+            slots.remove(oldSlot);
+        }
+        slots.put(slot, resolver == null ? task : null);
+    }
+
+    // Удаление идёт по сохранённому при добавлении ключу, поэтому не зависит от того,
+    // менялось ли время у самого объекта задачи
+    public void remove(int id) {
+        Slot slot = slotsByID.remove(id);
+        if (slot != null) {
+            slots.remove(slot);
+        }
+    }
+
+    public void removeAll(TaskType type) {
+        Iterator<Map.Entry<Slot, Task>> iterator = slots.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Slot, Task> entry = iterator.next();
+            if (entry.getKey().type() == type) {
+                slotsByID.remove(entry.getKey().id());
+                iterator.remove();
+            }
+        }
+    }
+
+    public void clear() {
+        slots.clear();
+        slotsByID.clear();
+    }
+
+    public int size() {
+        return slots.size();
+    }
+
+    public boolean isEmpty() {
+        return slots.isEmpty();
+    }
+
+    // Интервалы в индексе не пересекаются, поэтому достаточно проверить ближайших соседей:
+    // предшественника с максимальным концом и первый интервал, начинающийся после startTime
+    public boolean hasIntersection(Task task) {
+        return hasIntersection(task.getStartTime(), task.getEndTime(), task.getId());
+    }
+
+    // Пересечение промежутка с задачами индекса, кроме задачи ignoredID (её прежнего положения)
+    public boolean hasIntersection(LocalDateTime start, LocalDateTime end, int ignoredID) {
+        long startTime = Slot.instant(start);
+        long endTime = Slot.instant(end);
+
+        Map.Entry<Slot, Task> before = slots.lowerEntry(new Slot(startTime, startTime, Integer.MIN_VALUE, null));
+        while (before != null && before.getKey().id() == ignoredID) {
+            before = slots.lowerEntry(before.getKey());
+        }
+        if (before != null && before.getKey().end() > startTime) {
+            return true;
+        }
+
+        Map.Entry<Slot, Task> after = slots.higherEntry(new Slot(startTime, startTime, Integer.MAX_VALUE, null));
+        while (after != null && after.getKey().id() == ignoredID) {
+            after = slots.higherEntry(after.getKey());
+        }
+        return after != null && after.getKey().start() < endTime;
+    }
+
+    public Set<Task> asSet() {
+        return view(slots);
+    }
+
+    // Задачи, начинающиеся в промежутке [from, to). Границы со значением null не ограничивают выборку
+    public Set<Task> range(LocalDateTime from, LocalDateTime to) {
+        NavigableMap<Slot, Task> range = slots;
+        if (from != null) {
+            range = range.tailMap(Slot.lowest(from), true);
+        }
+        if (to != null) {
+            range = range.headMap(Slot.lowest(to), false);
+        }
+        return view(range);
+    }
+
+    // Задачи, следующие в расписании за задачей с данным id, или null, если её нет в индексе
+    public Set<Task> after(int id) {
+        Slot slot = slotsByID.get(id);
+        return slot != null ? view(slots.tailMap(slot, false)) : null;
+    }
+
+    private Set<Task> view(NavigableMap<Slot, Task> slots) {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Task> iterator() {
+                if (resolver == null) {
+                    return Collections.unmodifiableCollection(slots.values()).iterator();
+                }
+                Iterator<Slot> ids = slots.keySet().iterator();
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return ids.hasNext();
+                    }
+
+                    @Override
+                    public Task next() {
+                        return resolver.apply(ids.next().id());
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return slots.size();
+            }
+        };
+    }
+
+    // Время хранится числом наносекунд от эпохи, чтобы интервал не держал объекты LocalDateTime.
+    // Даты за пределами 1677-2262 годов прижимаются к границам диапазона long.
+    // Тип не участвует в сравнении и нужен для removeAll без обращения к задаче
+    private record Slot(long start, long end, int id, TaskType type) implements Comparable<Slot> {
+        static Slot of(Task task) {
+            return new Slot(instant(task.getStartTime()), instant(task.getEndTime()), task.getId(), task.getType());
+        }
+
+        static Slot lowest(LocalDateTime start) {
+            return new Slot(instant(start), Long.MIN_VALUE, Integer.MIN_VALUE, null);
+        }
+
+        static long instant(LocalDateTime time) {
+            long seconds = time.toEpochSecond(ZoneOffset.UTC);
+            if (seconds >= Long.MAX_VALUE / NANOS_PER_SECOND) {
+                return Long.MAX_VALUE;
+            }
+            if (seconds <= Long.MIN_VALUE / NANOS_PER_SECOND) {
+                return Long.MIN_VALUE;
+            }
+            return seconds * NANOS_PER_SECOND + time.getNano();
+        }
+
+        @Override
+        public int compareTo(Slot other) {
+            int result = Long.compare(start, other.start);
+            if (result == 0) {
+                result = Long.compare(end, other.end);
+            }
+            if (result == 0) {
+                result = Integer.compare(id, other.id);
+            }
+            return result;
+        }
+    }
+}
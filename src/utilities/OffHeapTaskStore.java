@@ -0,0 +1,464 @@
+package utilities;
+
+import enums.TaskStatus;
+import enums.TaskType;
+import tasks.Subtask;
+import tasks.Task;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+// Хранилище задач и подзадач вне кучи: записи сериализуются в прямые ByteBuffer, в куче остаются только
+// массивы id, адресов и классов размера (около 21 байта на задачу). Место под записи выделяется блоками
+// размера степени двойки, освобождённый блок попадает в список свободных своего класса и отдаётся следующей
+// записи того же класса. Сегмент, в котором не осталось живых записей, отпускается целиком, а его номер
+// попадает в список свободных сегментов. Как и в ColumnarTaskStore, задача создаётся при каждом чтении,
+// эпики не хранятся
+public class OffHeapTaskStore<T extends Task> extends AbstractMap<Integer, T> implements IntMap<T> {
+    private static final long NO_ADDRESS = -1;
+    private static final int MIN_CAPACITY = 4;
+    private static final int MIN_BLOCK_SHIFT = 6;
+    // Блоки крупнее этого получают отдельный буфер, чтобы не оставлять большой хвост в общем сегменте
+    private static final int MAX_SHARED_BLOCK_SHIFT = 16;
+    private static final int SEGMENT_SIZE = 1 << 20;
+    // id, тип, статус, начало (секунды и наносекунды), длительность, epicID, длины двух строк
+    private static final int HEADER_SIZE = 38;
+    private static final long NO_TIME = Long.MIN_VALUE;
+    private static final TaskType[] TYPES = TaskType.values();
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    private final List<ByteBuffer> segments = new ArrayList<>();
+    private final long[][] freeBlocks = new long[Integer.SIZE][];
+    private final int[] freeCounts = new int[Integer.SIZE];
+    // Число живых записей в каждом сегменте и номера отпущенных сегментов для повторного использования
+    private int[] liveBlocks = new int[MIN_CAPACITY];
+    private int[] freeSegments = new int[MIN_CAPACITY];
+    private int freeSegmentCount;
+    private ByteBuffer current;
+    private int currentIndex;
+    private long allocatedBytes;
+
+    private final PositionTable positions;
+    private int[] ids;
+    // Номер сегмента в старших 32 битах, смещение в младших. NO_ADDRESS помечает удалённую строку
+    private long[] addresses;
+    private byte[] blockShifts;
+    private int end;
+    private int size;
+
+    public OffHeapTaskStore() {
+        positions = new PositionTable(MIN_CAPACITY);
+        ids = new int[MIN_CAPACITY];
+        addresses = new long[MIN_CAPACITY];
+        blockShifts = new byte[MIN_CAPACITY];
+    }
+
+    // Объём прямой памяти, занятой сегментами, включая свободные блоки
+    public long allocatedBytes() {
+        return allocatedBytes;
+    }
+
+    private int row(int id) {
+        int cell = positions.find(id, ids);
+        return cell >= 0 ? positions.position(cell) : -1;
+    }
+
+    @Override
+    public T get(int id) {
+        int row = row(id);
+        return row >= 0 ? read(addresses[row]) : null;
+    }
+
+    @Override
+    public boolean containsKey(int id) {
+        return row(id) >= 0;
+    }
+
+    @Override
+    public T put(int id, T task) {
+        if (task.getType() == TaskType.EPIC) {
+            throw new IllegalArgumentException("Эпики не хранятся вне кучи");
+        }
+        byte[] name = encode(task.getTaskName());
+        byte[] description = encode(task.getTaskDescription());
+        int shift = blockShift(HEADER_SIZE + length(name) + length(description));
+
+        int row = row(id);
+        if (row >= 0) {
+            T oldTask = read(addresses[row]);
+            if (blockShifts[row] != shift) {
+                free(addresses[row], blockShifts[row]);
+                addresses[row] = allocate(shift);
+                blockShifts[row] = (byte) shift;
+            }
+            write(addresses[row], id, task, name, description);
+            return oldTask;
+        }
+        if (end == ids.length) {
+            if (size < end / 2) {
+                compact();
+            } else {
+                ids = Arrays.copyOf(ids, ids.length * 2);
+                addresses = Arrays.copyOf(addresses, ids.length);
+                blockShifts = Arrays.copyOf(blockShifts, ids.length);
+            }
+        }
+        if (positions.isFull()) {
+            rehash(size + 1);
+        }
+        long address = allocate(shift);
+        write(address, id, task, name, description);
+        ids[end] = id;
+        addresses[end] = address;
+        blockShifts[end] = (byte) shift;
+        positions.insert(id, end);
+        end++;
+        size++;
+        return null;
+    }
+
+    private static byte[] encode(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static int length(byte[] bytes) {
+        return bytes != null ? bytes.length : 0;
+    }
+
+    private static int blockShift(int recordSize) {
+        return Math.max(MIN_BLOCK_SHIFT, Integer.SIZE - Integer.numberOfLeadingZeros(recordSize - 1));
+    }
+
+    private long allocate(int shift) {
+        long address;
+        int blockSize = 1 << shift;
+        if (freeCounts[shift] > 0) {
+            address = freeBlocks[shift][--freeCounts[shift]];
+        } else if (shift > MAX_SHARED_BLOCK_SHIFT) {
+            address = address(newSegment(blockSize), 0);
+        } else {
+            if (current == null || current.remaining() < blockSize) {
+                ByteBuffer previous = current;
+                int previousIndex = currentIndex;
+                currentIndex = newSegment(SEGMENT_SIZE);
+                current = segments.get(currentIndex);
+                if (previous != null && liveBlocks[previousIndex] == 0) {
+                    releaseSegment(previousIndex);
+                }
+            }
+            int offset = current.position();
+            current.position(offset + blockSize);
+            address = address(currentIndex, offset);
+        }
+        liveBlocks[segmentOf(address)]++;
+        return address;
+    }
+
+    // Номер нового сегмента: сначала занимаются номера отпущенных
+    private int newSegment(int capacity) {
+        ByteBuffer segment = ByteBuffer.allocateDirect(capacity);
+        allocatedBytes += capacity;
+        if (freeSegmentCount > 0) {
+            int index = freeSegments[--freeSegmentCount];
+            segments.set(index, segment);
+            return index;
+        }
+        segments.add(segment);
+        if (segments.size() > liveBlocks.length) {
+            liveBlocks = Arrays.copyOf(liveBlocks, liveBlocks.length * 2);
+        }
+        return segments.size() - 1;
+    }
+
+    private void free(long address, int shift) {
+        int segment = segmentOf(address);
+        if (--liveBlocks[segment] == 0 && segments.get(segment) != current) {
+            releaseSegment(segment);
+            return;
+        }
+        long[] blocks = freeBlocks[shift];
+        if (blocks == null) {
+            blocks = freeBlocks[shift] = new long[MIN_CAPACITY];
+        } else if (freeCounts[shift] == blocks.length) {
+            blocks = freeBlocks[shift] = Arrays.copyOf(blocks, blocks.length * 2);
+        }
+        blocks[freeCounts[shift]++] = address;
+    }
+
+    // Свободные блоки отпущенного сегмента убираются из списков, иначе их отдали бы записям
+    // в новом сегменте с тем же номером. Отдельный сегмент крупной записи в списки не попадает
+    private void releaseSegment(int segment) {
+        allocatedBytes -= segments.get(segment).capacity();
+        segments.set(segment, null);
+        for (int shift = MIN_BLOCK_SHIFT; shift <= MAX_SHARED_BLOCK_SHIFT; shift++) {
+            long[] blocks = freeBlocks[shift];
+            int kept = 0;
+            for (int i = 0; i < freeCounts[shift]; i++) {
+                if (segmentOf(blocks[i]) != segment) {
+                    blocks[kept++] = blocks[i];
+                }
+            }
+            freeCounts[shift] = kept;
+        }
+        if (freeSegmentCount == freeSegments.length) {
+            freeSegments = Arrays.copyOf(freeSegments, freeSegments.length * 2);
+        }
+        freeSegments[freeSegmentCount++] = segment;
+    }
+
+    private static long address(int segment, int offset) {
+        return (long) segment << 32 | offset;
+    }
+
+    private static int segmentOf(long address) {
+        return (int) (address >>> 32);
+    }
+
+    // Запись и чтение идут по абсолютным индексам и не трогают позицию буфера
+    private void write(long address, int id, Task task, byte[] name, byte[] description) {
+        ByteBuffer segment = segments.get(segmentOf(address));
+        int offset = (int) address;
+        LocalDateTime startTime = task.getStartTime();
+        segment.putInt(offset, id)
+                .put(offset + 4, (byte) task.getType().ordinal())
+                .put(offset + 5, (byte) (task.getStatus() != null ? task.getStatus().ordinal() : -1))
+                .putLong(offset + 6, startTime != null ? startTime.toEpochSecond(ZoneOffset.UTC) : NO_TIME)
+                .putInt(offset + 14, startTime != null ? startTime.getNano() : 0)
+                .putLong(offset + 18, task.getDuration() != null ? task.getDuration().getSeconds() : NO_TIME)
+                .putInt(offset + 26, task instanceof Subtask subtask ? subtask.getEpicID() : 0);
+        int position = writeString(segment, offset + 30, name);
+        writeString(segment, position, description);
+    }
+
+    private static int writeString(ByteBuffer segment, int position, byte[] bytes) {
+        if (bytes == null) {
+            segment.putInt(position, -1);
+            return position + Integer.BYTES;
+        }
+        segment.putInt(position, bytes.length).put(position + Integer.BYTES, bytes);
+        return position + Integer.BYTES + bytes.length;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T read(long address) {
+        ByteBuffer segment = segments.get(segmentOf(address));
+        int offset = (int) address;
+        int id = segment.getInt(offset);
+        TaskType type = TYPES[segment.get(offset + 4)];
+        byte statusOrdinal = segment.get(offset + 5);
+        TaskStatus status = statusOrdinal >= 0 ? STATUSES[statusOrdinal] : null;
+        long startSeconds = segment.getLong(offset + 6);
+        LocalDateTime startTime = startSeconds != NO_TIME
+                ? LocalDateTime.ofEpochSecond(startSeconds, segment.getInt(offset + 14), ZoneOffset.UTC) : null;
+        long durationSeconds = segment.getLong(offset + 18);
+        Duration duration = durationSeconds != NO_TIME ? Duration.ofSeconds(durationSeconds) : null;
+        int epicID = segment.getInt(offset + 26);
+
+        int position = offset + 30;
+        String name = readString(segment, position);
+        position += Integer.BYTES + Math.max(segment.getInt(position), 0);
+        String description = readString(segment, position);
+
+        if (type == TaskType.SUBTASK) {
+            return (T) new Subtask(id, name, description, status, epicID, startTime, duration);
+        }
+        return (T) new Task(id, name, description, status, startTime, duration);
+    }
+
+    private static String readString(ByteBuffer segment, int position) {
+        int length = segment.getInt(position);
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        segment.get(position + Integer.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public T remove(int id) {
+        int cell = positions.find(id, ids);
+        if (cell < 0) {
+            return null;
+        }
+        T oldTask = removeCell(cell);
+        if (size == 0) {
+            clear();
+        } else if (size < end / 4) {
+            compact();
+        }
+        return oldTask;
+    }
+
+    private T removeCell(int cell) {
+        int row = positions.position(cell);
+        T oldTask = read(addresses[row]);
+        free(addresses[row], blockShifts[row]);
+        addresses[row] = NO_ADDRESS;
+        positions.delete(cell);
+        size--;
+        return oldTask;
+    }
+
+    @Override
+    public T get(Object key) {
+        return key instanceof Integer id ? get(id.intValue()) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Integer id && containsKey(id.intValue());
+    }
+
+    @Override
+    public T put(Integer key, T value) {
+        return put(key.intValue(), value);
+    }
+
+    @Override
+    public T remove(Object key) {
+        return key instanceof Integer id ? remove(id.intValue()) : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Сегменты отпускаются целиком, память вернётся, когда сборщик удалит буферы
+    @Override
+    public void clear() {
+        segments.clear();
+        current = null;
+        allocatedBytes = 0;
+        Arrays.fill(freeBlocks, null);
+        Arrays.fill(freeCounts, 0);
+        Arrays.fill(liveBlocks, 0);
+        freeSegmentCount = 0;
+        end = 0;
+        size = 0;
+        positions.clear();
+    }
+
+    // Сдвигает строки индекса к началу без смены порядка, записи вне кучи остаются на месте
+    private void compact() {
+        int count = 0;
+        for (int row = 0; row < end; row++) {
+            if (addresses[row] != NO_ADDRESS) {
+                ids[count] = ids[row];
+                addresses[count] = addresses[row];
+                blockShifts[count] = blockShifts[row];
+                count++;
+            }
+        }
+        end = count;
+        rehash(size);
+    }
+
+    private void rehash(int expectedSize) {
+        positions.reset(expectedSize);
+        for (int row = 0; row < end; row++) {
+            if (addresses[row] != NO_ADDRESS) {
+                positions.insert(ids[row], row);
+            }
+        }
+    }
+
+    @Override
+    public Collection<T> values() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<T> iterator() {
+                return new RowIterator<>() {
+                    @Override
+                    T item(int row) {
+                        return read(addresses[row]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public Set<Map.Entry<Integer, T>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Map.Entry<Integer, T>> iterator() {
+                return new RowIterator<>() {
+                    @Override
+                    Map.Entry<Integer, T> item(int row) {
+                        return new SimpleImmutableEntry<>(ids[row], read(addresses[row]));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    // Обход живых строк в порядке добавления
+    private abstract class RowIterator<E> implements Iterator<E> {
+        private int next = skipHoles(0);
+        private int last = -1;
+
+        private int skipHoles(int row) {
+            while (row < end && addresses[row] == NO_ADDRESS) {
+                row++;
+            }
+            return row;
+        }
+
+        abstract E item(int row);
+
+        @Override
+        public boolean hasNext() {
+            return next < end;
+        }
+
+        @Override
+        public E next() {
+            if (next >= end) {
+                throw new NoSuchElementException();
+            }
+            last = next;
+            next = skipHoles(next + 1);
+            return item(last);
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0 || addresses[last] == NO_ADDRESS) {
+                throw new IllegalStateException();
+            }
+            removeCell(positions.find(ids[last], ids));
+            last = -1;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package utilities;
+
+import java.util.Arrays;
+
+// Хеш-таблица с открытой адресацией из ключа int в позицию в массиве владельца. Сами ключи хранит владелец,
+// таблица держит только позиции, поэтому сравнение идёт по переданному массиву ключей.
+// Заполненность вместе с удалёнными ячейками не превышает половины
+final class PositionTable {
+    private static final int FREE = 0;
+    private static final int DELETED = -1;
+    private static final int MIN_CAPACITY = 4;
+
+    // Позиция + 1, FREE или DELETED
+    private int[] table;
+    private int used;
+
+    PositionTable(int expectedSize) {
+        table = new int[capacity(expectedSize)];
+    }
+
+    private static int capacity(int expectedSize) {
+        return Integer.highestOneBit(Math.max(expectedSize, MIN_CAPACITY) * 4 - 1);
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    // Индекс ячейки с данным ключом или -1
+    int find(int key, int[] keys) {
+        int mask = table.length - 1;
+        for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+            int slot = table[i];
+            if (slot == FREE) {
+                return -1;
+            }
+            if (slot != DELETED && keys[slot - 1] == key) {
+                return i;
+            }
+        }
+    }
+
+    int position(int cell) {
+        return table[cell] - 1;
+    }
+
+    void insert(int key, int position) {
+        int mask = table.length - 1;
+        int i = hash(key) & mask;
+        while (table[i] != FREE && table[i] != DELETED) {
+            i = (i + 1) & mask;
+        }
+        if (table[i] == FREE) {
+            used++;
+        }
+        table[i] = position + 1;
+    }
+
+    void delete(int cell) {
+        table[cell] = DELETED;
+    }
+
+    // Перед вставкой: если true, владелец вызывает reset и заново вставляет живые позиции
+    boolean isFull() {
+        return (used + 1) * 2 > table.length;
+    }
+
+    void reset(int expectedSize) {
+        table = new int[capacity(expectedSize)];
+        used = 0;
+    }
+
+    void clear() {
+        Arrays.fill(table, FREE);
+        used = 0;
+    }
+}
@@ -0,0 +1,94 @@
+package utilities;
+
+import java.util.Arrays;
+
+// Список документов одного слова: id и вес вхождений, без упаковки. Устроен как IntHashMap
+// с весами int вместо ссылок, нулевой вес помечает удалённый документ
+final class Postings {
+    private static final int MIN_CAPACITY = 4;
+
+    private int[] ids = new int[MIN_CAPACITY];
+    private int[] weights = new int[MIN_CAPACITY];
+    private int end;
+    private int size;
+    private final PositionTable positions = new PositionTable(MIN_CAPACITY);
+
+    interface Visitor {
+        void visit(int id, int weight);
+    }
+
+    void add(int id, int weight) {
+        int cell = positions.find(id, ids);
+        if (cell >= 0) {
+            weights[positions.position(cell)] = weight;
+            return;
+        }
+        if (end == ids.length) {
+            if (size < end / 2) {
+                compact();
+            } else {
+                ids = Arrays.copyOf(ids, ids.length * 2);
+                weights = Arrays.copyOf(weights, ids.length);
+            }
+        }
+        if (positions.isFull()) {
+            rehash(size + 1);
+        }
+        ids[end] = id;
+        weights[end] = weight;
+        positions.insert(id, end);
+        end++;
+        size++;
+    }
+
+    void remove(int id) {
+        int cell = positions.find(id, ids);
+        if (cell < 0) {
+            return;
+        }
+        weights[positions.position(cell)] = 0;
+        positions.delete(cell);
+        size--;
+        if (size > 0 && size < end / 4) {
+            compact();
+        }
+    }
+
+    boolean contains(int id) {
+        return positions.find(id, ids) >= 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void forEach(Visitor visitor) {
+        for (int i = 0; i < end; i++) {
+            if (weights[i] != 0) {
+                visitor.visit(ids[i], weights[i]);
+            }
+        }
+    }
+
+    private void compact() {
+        int count = 0;
+        for (int i = 0; i < end; i++) {
+            if (weights[i] != 0) {
+                ids[count] = ids[i];
+                weights[count] = weights[i];
+                count++;
+            }
+        }
+        end = count;
+        rehash(size);
+    }
+
+    private void rehash(int expectedSize) {
+        positions.reset(expectedSize);
+        for (int i = 0; i < end; i++) {
+            if (weights[i] != 0) {
+                positions.insert(ids[i], i);
+            }
+        }
+    }
+}
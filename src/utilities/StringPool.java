@@ -0,0 +1,117 @@
+package utilities;
+
+import java.util.Arrays;
+
+// Пул строк со счётчиком ссылок: одинаковые строки хранятся один раз и обозначаются номером.
+// Номер освобождённой строки используется повторно. null обозначается номером -1.
+// Номер строки ищется в таблице с открытой адресацией по массиву int, без объекта на каждую строку:
+// сверх самой строки пул тратит около 20 байт на строку
+public class StringPool {
+    private static final int NULL_REF = -1;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int FREE = 0;
+    private static final int DELETED = -1;
+
+    private String[] strings = new String[INITIAL_CAPACITY];
+    private int[] counts = new int[INITIAL_CAPACITY];
+    private int[] freeRefs = new int[INITIAL_CAPACITY];
+    // Номер строки + 1, FREE или DELETED. Заполненность вместе с удалёнными ячейками не превышает половины
+    private int[] table = new int[INITIAL_CAPACITY * 2];
+    private int used;
+    private int freeCount;
+    private int next;
+    private int size;
+
+    private static int hash(String value) {
+        int h = value.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    public int acquire(String value) {
+        if (value == null) {
+            return NULL_REF;
+        }
+        int mask = table.length - 1;
+        int insertAt = -1;
+        int i = hash(value) & mask;
+        for (int slot = table[i]; slot != FREE; i = (i + 1) & mask, slot = table[i]) {
+            if (slot == DELETED) {
+                if (insertAt < 0) {
+                    insertAt = i;
+                }
+            } else if (strings[slot - 1].equals(value)) {
+                counts[slot - 1]++;
+                return slot - 1;
+            }
+        }
+        int newRef = newRef();
+        strings[newRef] = value;
+        counts[newRef] = 1;
+        size++;
+        if (insertAt >= 0) {
+            table[insertAt] = newRef + 1;
+        } else if ((used + 1) * 2 > table.length) {
+            rehash();
+        } else {
+            table[i] = newRef + 1;
+            used++;
+        }
+        return newRef;
+    }
+
+    private int newRef() {
+        if (freeCount > 0) {
+            return freeRefs[--freeCount];
+        }
+        if (next == strings.length) {
+            strings = Arrays.copyOf(strings, next * 2);
+            counts = Arrays.copyOf(counts, next * 2);
+        }
+        return next++;
+    }
+
+    public void release(int ref) {
+        if (ref == NULL_REF || --counts[ref] > 0) {
+            return;
+        }
+        int mask = table.length - 1;
+        int i = hash(strings[ref]) & mask;
+        while (table[i] != ref + 1) {
+            i = (i + 1) & mask;
+        }
+        table[i] = DELETED;
+        strings[ref] = null;
+        size--;
+        if (freeCount == freeRefs.length) {
+            freeRefs = Arrays.copyOf(freeRefs, freeCount * 2);
+        }
+        freeRefs[freeCount++] = ref;
+    }
+
+    // Таблица строится заново по живым строкам, удалённые ячейки пропадают
+    private void rehash() {
+        table = new int[Integer.highestOneBit(Math.max(size, INITIAL_CAPACITY) * 4 - 1)];
+        used = 0;
+        int mask = table.length - 1;
+        for (int ref = 0; ref < next; ref++) {
+            if (strings[ref] == null) {
+                continue;
+            }
+            int i = hash(strings[ref]) & mask;
+            while (table[i] != FREE) {
+                i = (i + 1) & mask;
+            }
+            table[i] = ref + 1;
+            used++;
+        }
+    }
+
+    public String get(int ref) {
+        return ref == NULL_REF ? null : strings[ref];
+    }
+
+    // Количество различных строк в пуле
+    public int size() {
+        return size;
+    }
+}
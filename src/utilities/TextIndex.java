@@ -0,0 +1,174 @@
+package utilities;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Обратный индекс по названию и описанию: слово -> документы с весом вхождений. Слова лежат
+// в упорядоченном словаре, поэтому слово запроса находит и все слова, которые с него начинаются.
+// Вес слова в названии выше, чем в описании. Не синхронизирован
+public class TextIndex {
+    private static final int NAME_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    // Более короткое слово запроса ищется только целиком, иначе одна буква раскрывается в половину словаря
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final double PREFIX_FACTOR = 0.5;
+    private static final String[] NO_TERMS = new String[0];
+
+    private final NavigableMap<String, Postings> terms = new TreeMap<>();
+    // Слова документа для удаления. Строки берутся из ключей словаря и не дублируются
+    private final IntMap<String[]> termsByID = new IntHashMap<>();
+
+    public void add(int id, String name, String description) {
+        remove(id);
+        Map<String, Integer> weights = new HashMap<>();
+        Tokenizer.forEach(name, term -> weights.merge(term, NAME_WEIGHT, Integer::sum));
+        Tokenizer.forEach(description, term -> weights.merge(term, DESCRIPTION_WEIGHT, Integer::sum));
+        if (weights.isEmpty()) {
+            return;
+        }
+        String[] stored = new String[weights.size()];
+        int count = 0;
+        for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+            String term = entry.getKey();
+            Postings postings = terms.get(term);
+            if (postings == null) {
+                postings = new Postings();
+                terms.put(term, postings);
+            } else {
+                term = terms.ceilingKey(term);
+            }
+            postings.add(id, entry.getValue());
+            stored[count++] = term;
+        }
+        termsByID.put(id, stored);
+    }
+
+    public void remove(int id) {
+        String[] stored = termsByID.remove(id);
+        for (String term : stored != null ? stored : NO_TERMS) {
+            Postings postings = terms.get(term);
+            postings.remove(id);
+            if (postings.size() == 0) {
+                terms.remove(term);
+            }
+        }
+    }
+
+    public void clear() {
+        terms.clear();
+        termsByID.clear();
+    }
+
+    // Число документов хотя бы с одним словом
+    public int size() {
+        return termsByID.size();
+    }
+
+    // Документы, содержащие все слова текста целиком, или null, если в тексте нет слов
+    public BitSet matchAll(String text) {
+        Set<String> queryTerms = Tokenizer.tokens(text);
+        if (queryTerms.isEmpty()) {
+            return null;
+        }
+        List<Postings> lists = new ArrayList<>(queryTerms.size());
+        for (String term : queryTerms) {
+            Postings postings = terms.get(term);
+            if (postings == null) {
+                return new BitSet();
+            }
+            lists.add(postings);
+        }
+        // пересечение начинается с самого короткого списка
+        lists.sort(Comparator.comparingInt(Postings::size));
+        BitSet matched = new BitSet();
+        lists.getFirst().forEach((id, weight) -> {
+            for (int i = 1; i < lists.size(); i++) {
+                if (!lists.get(i).contains(id)) {
+                    return;
+                }
+            }
+            matched.set(id);
+        });
+        return matched;
+    }
+
+    // До count документов, где встречается каждое слово запроса (целиком или как начало слова),
+    // по убыванию оценки, при равенстве - по id. Оценка - сумма весов вхождений, умноженных на редкость слова
+    public int[] search(String text, int count) {
+        Set<String> queryTerms = Tokenizer.tokens(text);
+        if (queryTerms.isEmpty() || count <= 0) {
+            return new int[0];
+        }
+        IntHashMap<double[]> scores = null;
+        for (String queryTerm : queryTerms) {
+            IntHashMap<double[]> termScores = score(queryTerm);
+            if (scores != null) {
+                IntHashMap<double[]> both = new IntHashMap<>(Math.min(scores.size(), termScores.size()));
+                IntHashMap<double[]> smaller = scores.size() <= termScores.size() ? scores : termScores;
+                IntHashMap<double[]> larger = smaller == scores ? termScores : scores;
+                for (Map.Entry<Integer, double[]> entry : smaller.entrySet()) {
+                    double[] other = larger.get(entry.getKey().intValue());
+                    if (other != null) {
+                        entry.getValue()[0] += other[0];
+                        both.put(entry.getKey().intValue(), entry.getValue());
+                    }
+                }
+                termScores = both;
+            }
+            scores = termScores;
+            if (scores.isEmpty()) {
+                return new int[0];
+            }
+        }
+        return top(scores, count);
+    }
+
+    private IntHashMap<double[]> score(String queryTerm) {
+        IntHashMap<double[]> scores = new IntHashMap<>();
+        Map<String, Postings> matches = queryTerm.length() < MIN_PREFIX_LENGTH
+                ? (terms.containsKey(queryTerm) ? Map.of(queryTerm, terms.get(queryTerm)) : Map.of())
+                : terms.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, false);
+        int documents = termsByID.size();
+        for (Map.Entry<String, Postings> match : matches.entrySet()) {
+            Postings postings = match.getValue();
+            double factor = Math.log(1 + (double) documents / postings.size())
+                    * (match.getKey().equals(queryTerm) ? 1 : PREFIX_FACTOR);
+            postings.forEach((id, weight) -> {
+                double[] score = scores.get(id);
+                if (score == null) {
+                    scores.put(id, new double[]{weight * factor});
+                } else {
+                    score[0] += weight * factor;
+                }
+            });
+        }
+        return scores;
+    }
+
+    // Отбор лучших через кучу размера count без сортировки всех найденных документов
+    private static int[] top(IntHashMap<double[]> scores, int count) {
+        Comparator<Map.Entry<Integer, double[]>> worseFirst = Comparator
+                .<Map.Entry<Integer, double[]>>comparingDouble(entry -> entry.getValue()[0])
+                .thenComparing(Map.Entry::getKey, Comparator.reverseOrder());
+        PriorityQueue<Map.Entry<Integer, double[]>> best = new PriorityQueue<>(worseFirst);
+        for (Map.Entry<Integer, double[]> entry : scores.entrySet()) {
+            best.add(entry);
+            if (best.size() > count) {
+                best.poll();
+            }
+        }
+        int[] ids = new int[best.size()];
+        for (int i = ids.length - 1; i >= 0; i--) {
+            ids[i] = best.poll().getKey();
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,47 @@
+package utilities;
+
+import java.text.Normalizer;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Consumer;
+
+// Разбивает текст на слова из букв и цифр любого алфавита. Слова приводятся к нижнему регистру,
+// "ё" заменяется на "е", чтобы запрос находил оба написания. Текст предварительно приводится к форме NFC:
+// иначе "й", набранная как "и" с комбинируемым знаком, разрезала бы слово надвое
+public final class Tokenizer {
+
+    private Tokenizer() {
+    }
+
+    // Уникальные слова в порядке первого появления
+    public static Set<String> tokens(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        forEach(text, tokens::add);
+        return tokens;
+    }
+
+    // Каждое вхождение слова, включая повторы
+    public static void forEach(String text, Consumer<String> action) {
+        if (text == null) {
+            return;
+        }
+        if (!Normalizer.isNormalized(text, Normalizer.Form.NFC)) {
+            text = Normalizer.normalize(text, Normalizer.Form.NFC);
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                action.accept(normalize(text.substring(start, i)));
+                start = -1;
+            }
+        }
+    }
+
+    private static String normalize(String word) {
+        return word.toLowerCase(Locale.ROOT).replace('ё', 'е');
+    }
+}
@@ -0,0 +1,126 @@
+package api;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import enums.ExecutorMode;
+import enums.TaskStatus;
+import managers.Managers;
+import managers.TaskManager;
+import org.junit.jupiter.api.Test;
+import server.HttpTaskServer;
+import tasks.Task;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HttpTaskManagerChangesTest {
+    TaskManager taskManager = Managers.getConcurrent();
+    HttpClient client = HttpClient.newHttpClient();
+
+    private HttpResponse<String> get(String uri) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder().uri(URI.create(uri)).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    public void testGetChangesSinceSequence() throws IOException, InterruptedException {
+        HttpTaskServer server = new HttpTaskServer(taskManager);
+        server.start();
+        try {
+            Task task = taskManager.addTask(new Task("Test addNewTask",
+                    "Test addNewTask description", TaskStatus.NEW, "08.02.25 11:00", 180));
+            taskManager.removeTask(task.getId());
+
+            HttpResponse<String> response = get("http://localhost:8080/changes?since=0");
+            assertEquals(200, response.statusCode());
+            JsonObject page = JsonParser.parseString(response.body()).getAsJsonObject();
+            JsonArray changes = page.getAsJsonArray("changes");
+            assertEquals(2, page.get("last").getAsLong());
+            assertEquals(2, changes.size());
+            assertEquals("ADDED", changes.get(0).getAsJsonObject().get("change").getAsString());
+            assertEquals("REMOVED", changes.get(1).getAsJsonObject().get("change").getAsString());
+            assertEquals(task.getId(), changes.get(1).getAsJsonObject().get("id").getAsInt());
+
+            assertEquals(0, JsonParser.parseString(get("http://localhost:8080/changes?since=2&wait=5").body())
+                    .getAsJsonObject().getAsJsonArray("changes").size(), "Без пула потоков запрос не должен ждать");
+            assertEquals(410, get("http://localhost:8080/changes?since=3").statusCode());
+            assertEquals(400, get("http://localhost:8080/changes?since=-1").statusCode());
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testLongPollReturnsOnChange() throws IOException {
+        HttpTaskServer server = new HttpTaskServer(taskManager, ExecutorMode.VIRTUAL_THREADS, 4, 4);
+        server.start();
+        try {
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create("http://localhost:8080/changes?since=0&wait=10")).GET().build();
+            CompletableFuture<HttpResponse<String>> waiting =
+                    client.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+            taskManager.addTask(new Task("Test addNewTask",
+                    "Test addNewTask description", TaskStatus.NEW, "08.02.25 11:00", 180));
+
+            HttpResponse<String> response = waiting.join();
+            assertEquals(200, response.statusCode());
+            assertEquals(1, JsonParser.parseString(response.body()).getAsJsonObject().get("last").getAsLong());
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testStopAnswersPendingLongPoll() throws IOException, InterruptedException {
+        HttpTaskServer server = new HttpTaskServer(taskManager, ExecutorMode.BOUNDED_POOL, 4, 4);
+        server.start();
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/changes?since=0&wait=20")).GET().build();
+        CompletableFuture<HttpResponse<String>> waiting =
+                client.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+        Thread.sleep(300);
+
+        long started = System.nanoTime();
+        server.stop();
+        assertTrue(System.nanoTime() - started < TimeUnit.SECONDS.toNanos(5), "Остановка ждала длинный опрос");
+        HttpResponse<String> response = waiting.join();
+        assertEquals(200, response.statusCode(), "Начатый запрос не получил ответ при остановке");
+        assertEquals(0, JsonParser.parseString(response.body()).getAsJsonObject().get("last").getAsLong());
+    }
+
+    @Test
+    public void testLongPollsLeaveThreadsForOtherRequests() throws IOException, InterruptedException {
+        HttpTaskServer server = new HttpTaskServer(taskManager, ExecutorMode.BOUNDED_POOL, 4, 0);
+        server.start();
+        try {
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create("http://localhost:8080/changes?since=0&wait=20")).GET().build();
+            List<CompletableFuture<HttpResponse<String>>> polls = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                polls.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+                Thread.sleep(100);
+            }
+
+            assertEquals(200, get("http://localhost:8080/tasks").statusCode(),
+                    "Длинные опросы заняли все потоки сервера");
+            taskManager.addTask(new Task("Test addNewTask",
+                    "Test addNewTask description", TaskStatus.NEW, "08.02.25 11:00", 180));
+            for (CompletableFuture<HttpResponse<String>> poll : polls) {
+                assertEquals(200, poll.join().statusCode());
+            }
+        } finally {
+            server.stop();
+        }
+    }
+}
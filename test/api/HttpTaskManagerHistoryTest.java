@@ -9,6 +9,8 @@ import org.junit.jupiter.api.Test;
 import server.HttpTaskServer;
 import server.adapters.DurationTypeAdapter;
 import server.adapters.LocalDateTimeTypeAdapter;
+import tasks.Epic;
+import tasks.Subtask;
 import tasks.Task;
 
 import java.io.IOException;
@@ -20,6 +22,7 @@ import java.time.Duration;
 import java.time.LocalDateTime;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 
 public class HttpTaskManagerHistoryTest {
     TaskManager taskManager = Managers.getDefault();
@@ -71,4 +74,27 @@ public class HttpTaskManagerHistoryTest {
 
         server.stop();
     }
+
+    @Test
+    public void testHistoryModifiedWhenViewedEpicChanges() throws IOException, InterruptedException {
+        server.start();
+        URI uri = URI.create("http://localhost:8080/history");
+        Epic epic = taskManager.addEpic(new Epic("Test addNewEpic", "Test addNewEpic description"));
+        taskManager.getEpic(epic.getId());
+
+        HttpResponse<String> first = client.send(HttpRequest.newBuilder().uri(uri).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        String etag = first.headers().firstValue("ETag").orElse(null);
+        HttpRequest conditional = HttpRequest.newBuilder().uri(uri).header("If-None-Match", etag).GET().build();
+        assertEquals(304, client.send(conditional, HttpResponse.BodyHandlers.ofString()).statusCode());
+
+        taskManager.addSubtask(new Subtask("Test addNewSubtask",
+                "Test addNewSubtask description", TaskStatus.DONE, epic.getId(), "08.02.25 11:00", 180));
+        HttpResponse<String> modified = client.send(conditional, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, modified.statusCode(), "Изменение эпика из истории должно менять её версию");
+        assertEquals(gson.toJson(taskManager.getHistory()), modified.body());
+        assertNotEquals(first.body(), modified.body());
+
+        server.stop();
+    }
 }
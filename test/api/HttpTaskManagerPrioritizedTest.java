@@ -18,8 +18,12 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class HttpTaskManagerPrioritizedTest {
     TaskManager taskManager = Managers.getDefault();
@@ -65,4 +69,78 @@ public class HttpTaskManagerPrioritizedTest {
 
         server.stop();
     }
+
+    @Test
+    public void testGetPrioritizedTasksPage() throws IOException, InterruptedException {
+        server.start();
+
+        taskManager.addTask(new Task("Test addNewTask",
+                "Test addNewTask description", TaskStatus.NEW, "08.02.25 11:00", 180));
+        taskManager.addTask(new Task("Test addNewTask",
+                "Test addNewTask description", TaskStatus.NEW, "09.02.25 11:00", 180));
+        taskManager.addTask(new Task("Test addNewTask",
+                "Test addNewTask description", TaskStatus.NEW, "08.02.25 08:00", 180));
+        taskManager.addTask(new Task("Test addNewTask",
+                "Test addNewTask description", TaskStatus.NEW, "08.02.25 14:00", 180));
+        taskManager.addTask(new Task("Test addNewTask",
+                "Test addNewTask description", TaskStatus.NEW, "09.02.25 08:00", 180));
+
+        HttpResponse<String> response1 = get("/prioritized?limit=2");
+        assertEquals(gson.toJson(List.of(taskManager.getTask(3), taskManager.getTask(1))), response1.body());
+        assertEquals("1", response1.headers().firstValue("X-Next-Cursor").orElse(null));
+
+        HttpResponse<String> response2 = get("/prioritized?after=1&limit=2");
+        assertEquals(gson.toJson(List.of(taskManager.getTask(4), taskManager.getTask(5))), response2.body());
+        assertEquals("5", response2.headers().firstValue("X-Next-Cursor").orElse(null));
+
+        HttpResponse<String> response3 = get("/prioritized?from=08.02.25%2012:00&to=09.02.25%2011:00");
+        assertEquals(gson.toJson(List.of(taskManager.getTask(4), taskManager.getTask(5))), response3.body());
+        assertTrue(response3.headers().firstValue("X-Next-Cursor").isEmpty());
+
+        HttpResponse<String> response4 = get("/prioritized?offset=1&limit=1&from=08.02.25%2012:00");
+        assertEquals(gson.toJson(List.of(taskManager.getTask(5))), response4.body());
+
+        assertEquals(400, get("/prioritized?limit=0").statusCode());
+        assertEquals(400, get("/prioritized?from=tomorrow").statusCode());
+        assertEquals(404, get("/prioritized?after=99").statusCode());
+
+        server.stop();
+    }
+
+    private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder().uri(URI.create("http://localhost:8080" + path)).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    public void testNotModifiedUntilPrioritizedChanges() throws IOException, InterruptedException {
+        server.start();
+        URI uri = URI.create("http://localhost:8080/prioritized");
+        taskManager.addTask(new Task("Test addNewTask",
+                "Test addNewTask description", TaskStatus.NEW, "08.02.25 11:00", 180));
+
+        HttpResponse<String> first = client.send(HttpRequest.newBuilder().uri(uri).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        String etag = first.headers().firstValue("ETag").orElse(null);
+        assertEquals(200, first.statusCode());
+        assertNotNull(etag, "Ответ должен содержать ETag");
+
+        HttpRequest conditional = HttpRequest.newBuilder().uri(uri).header("If-None-Match", etag).GET().build();
+        HttpResponse<String> notModified = client.send(conditional, HttpResponse.BodyHandlers.ofString());
+        assertEquals(304, notModified.statusCode());
+        assertEquals("", notModified.body());
+
+        taskManager.getTask(1);
+        assertEquals(304, client.send(conditional, HttpResponse.BodyHandlers.ofString()).statusCode(),
+                "Просмотр задачи не меняет список приоритетов");
+
+        taskManager.addTask(new Task("Test addNewTask",
+                "Test addNewTask description", TaskStatus.NEW, "09.02.25 11:00", 180));
+        HttpResponse<String> modified = client.send(conditional, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, modified.statusCode());
+        assertEquals(gson.toJson(taskManager.getPrioritizedTasks()), modified.body());
+        assertNotEquals(etag, modified.headers().firstValue("ETag").orElse(null));
+
+        server.stop();
+    }
 }
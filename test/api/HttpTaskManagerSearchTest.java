@@ -0,0 +1,74 @@
+package api;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import enums.TaskStatus;
+import managers.Managers;
+import managers.TaskManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import server.HttpTaskServer;
+import server.adapters.DurationTypeAdapter;
+import server.adapters.LocalDateTimeTypeAdapter;
+import tasks.Epic;
+import tasks.Task;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HttpTaskManagerSearchTest {
+    TaskManager taskManager = Managers.getDefault();
+    HttpTaskServer server = new HttpTaskServer(taskManager);
+    HttpClient client = HttpClient.newHttpClient();
+    Gson gson = new GsonBuilder()
+            .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeTypeAdapter())
+            .registerTypeAdapter(Duration.class, new DurationTypeAdapter())
+            .create();
+
+    @BeforeEach
+    public void beforeEach() throws IOException {
+        server.start();
+    }
+
+    @AfterEach
+    public void afterEach() {
+        server.stop();
+    }
+
+    private HttpResponse<String> search(String query) throws IOException, InterruptedException {
+        URI uri = URI.create("http://localhost:8080/search?" + query);
+        return client.send(HttpRequest.newBuilder().uri(uri).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    public void testSearchReturnsRankedPage() throws IOException, InterruptedException {
+        Task task = taskManager.addTask(new Task("Позвонить", "Обсудить отчёт", TaskStatus.NEW,
+                "08.02.25 11:00", 60));
+        Epic epic = taskManager.addEpic(new Epic("Отчёт за квартал", "Собрать данные"));
+        String q = "q=" + URLEncoder.encode("Отчет", StandardCharsets.UTF_8);
+
+        HttpResponse<String> response = search(q);
+        assertEquals(200, response.statusCode());
+        assertEquals(gson.toJson(List.of(epic, task)), response.body());
+
+        HttpResponse<String> secondPage = search(q + "&offset=1&limit=1");
+        assertEquals(gson.toJson(List.of(task)), secondPage.body());
+    }
+
+    @Test
+    public void testSearchWithoutTextIsBadRequest() throws IOException, InterruptedException {
+        assertEquals(400, search("q=").statusCode());
+        assertEquals(400, search("q=abc&limit=0").statusCode());
+    }
+}
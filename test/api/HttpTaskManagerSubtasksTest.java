@@ -21,6 +21,7 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -178,4 +179,34 @@ public class HttpTaskManagerSubtasksTest {
         HttpResponse<String> responseGetFiveTask = client.send(requestGetFiveSubtask, HttpResponse.BodyHandlers.ofString());
         assertEquals(400, responseGetFiveTask.statusCode());
     }
+
+    @Test
+    public void testAddSubtasksBatch() throws IOException, InterruptedException {
+        URI batchUri = URI.create("http://localhost:8080/subtasks/batch");
+        Epic epic = taskManager.addEpic(new Epic("Test addNewEpic", "Test addNewEpic description"));
+        String json = gson.toJson(List.of(
+                new Subtask("Test addNewSubtask1", "Test addNewSubtask1 description", TaskStatus.NEW,
+                        epic.getId(), "08.02.25 11:00", 60),
+                new Subtask("Test addNewSubtask2", "Test addNewSubtask2 description", TaskStatus.NEW,
+                        epic.getId(), "08.02.25 11:30", 60),
+                new Subtask("Test addNewSubtask3", "Test addNewSubtask3 description", TaskStatus.DONE,
+                        epic.getId(), "08.02.25 12:00", 60)));
+
+        HttpRequest request1 = HttpRequest.newBuilder().uri(URI.create(batchUri + "?atomic=true"))
+                .POST(HttpRequest.BodyPublishers.ofString(json)).build();
+        HttpResponse<String> response1 = client.send(request1, HttpResponse.BodyHandlers.ofString());
+        assertEquals(406, response1.statusCode());
+        assertTrue(taskManager.getListOfSubtasks().isEmpty());
+
+        HttpRequest request2 = HttpRequest.newBuilder().uri(batchUri)
+                .POST(HttpRequest.BodyPublishers.ofString(json)).build();
+        HttpResponse<String> response2 = client.send(request2, HttpResponse.BodyHandlers.ofString());
+        assertEquals(201, response2.statusCode());
+        assertEquals("[2,null,3]", response2.body());
+        assertEquals(TaskStatus.IN_PROGRESS, taskManager.getEpic(epic.getId()).getStatus());
+
+        HttpRequest request3 = HttpRequest.newBuilder().uri(batchUri).GET().build();
+        HttpResponse<String> response3 = client.send(request3, HttpResponse.BodyHandlers.ofString());
+        assertEquals(400, response3.statusCode());
+    }
 }
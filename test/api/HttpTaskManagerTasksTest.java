@@ -11,6 +11,9 @@ import org.junit.jupiter.api.Test;
 import server.HttpTaskServer;
 import server.adapters.DurationTypeAdapter;
 import server.adapters.LocalDateTimeTypeAdapter;
+import server.handlers.BaseHttpHandler;
+import tasks.Epic;
+import tasks.Subtask;
 import tasks.Task;
 
 import java.io.IOException;
@@ -20,6 +23,7 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -170,4 +174,81 @@ public class HttpTaskManagerTasksTest {
         HttpResponse<String> responseGetFiveTask = client.send(requestGetFiveTask, HttpResponse.BodyHandlers.ofString());
         assertEquals(400, responseGetFiveTask.statusCode());
     }
+
+    @Test
+    public void testStreamedListMatchesGsonOutput() throws IOException, InterruptedException {
+        for (int i = 0; i < 2000; i++) {
+            taskManager.addTask(new Task(0, "Задача <" + i + "> & 'кавычки'",
+                    "Описание \"" + i + "\"", TaskStatus.NEW,
+                    LocalDateTime.of(2025, 2, 8, 0, 0).plusHours(i), Duration.ofMinutes(30)));
+        }
+
+        HttpRequest request = HttpRequest.newBuilder().uri(URI.create("http://localhost:8080/tasks")).GET().build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+        assertEquals(gson.toJson(taskManager.getListOfTasks()), response.body(),
+                "Потоковый ответ отличается от gson.toJson");
+    }
+
+    @Test
+    public void testRejectOversizedAndMalformedBody() throws IOException, InterruptedException {
+        URI uri = URI.create("http://localhost:8080/tasks");
+        String json = gson.toJson(new Task("Test addNewTask",
+                "x".repeat(BaseHttpHandler.DEFAULT_MAX_BODY_SIZE), TaskStatus.NEW, "08.02.25 11:00", 180));
+
+        HttpRequest request1 = HttpRequest.newBuilder().uri(uri).POST(HttpRequest.BodyPublishers.ofString(json)).build();
+        HttpResponse<String> response1 = client.send(request1, HttpResponse.BodyHandlers.ofString());
+        assertEquals(413, response1.statusCode());
+
+        HttpRequest request2 = HttpRequest.newBuilder().uri(uri).POST(HttpRequest.BodyPublishers.noBody()).build();
+        HttpResponse<String> response2 = client.send(request2, HttpResponse.BodyHandlers.ofString());
+        assertEquals(400, response2.statusCode());
+
+        HttpRequest request3 = HttpRequest.newBuilder().uri(uri).POST(HttpRequest.BodyPublishers.ofString("{} {")).build();
+        HttpResponse<String> response3 = client.send(request3, HttpResponse.BodyHandlers.ofString());
+        assertEquals(400, response3.statusCode());
+        assertTrue(taskManager.getListOfTasks().isEmpty());
+    }
+
+    @Test
+    public void testQueryTasksByStatusTimeAndText() throws IOException, InterruptedException {
+        taskManager.addTask(new Task("Купить молоко", "", TaskStatus.NEW, "08.02.25 11:00", 60));
+        Task inProgress = taskManager.addTask(new Task("Купить хлеб", "", TaskStatus.IN_PROGRESS,
+                "08.02.25 13:00", 60));
+        taskManager.addTask(new Task("Позвонить", "", TaskStatus.IN_PROGRESS, "08.02.25 15:00", 60));
+
+        URI uri = URI.create("http://localhost:8080/tasks?status=in_progress&q=%D0%BA%D1%83%D0%BF%D0%B8%D1%82%D1%8C"
+                + "&from=08.02.25%2012:00&to=08.02.25%2016:00");
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder().uri(uri).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+        assertEquals(gson.toJson(List.of(inProgress)), response.body());
+
+        URI wrongStatus = URI.create("http://localhost:8080/tasks?status=LATER");
+        HttpResponse<String> wrongResponse = client.send(HttpRequest.newBuilder().uri(wrongStatus).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(400, wrongResponse.statusCode());
+    }
+
+    @Test
+    public void testQueryOnlyForKnownParamsAndTasksByDefault() throws IOException, InterruptedException {
+        Task task = taskManager.addTask(new Task("Купить молоко", "", TaskStatus.NEW, "08.02.25 11:00", 60));
+        Epic epic = taskManager.addEpic(new Epic("Покупки", ""));
+        Subtask subtask = taskManager.addSubtask(new Subtask("Купить хлеб", "", TaskStatus.NEW, epic.getId(),
+                "08.02.25 13:00", 60));
+
+        HttpResponse<String> cacheBuster = client.send(HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/tasks?_=123")).GET().build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, cacheBuster.statusCode());
+        assertEquals(gson.toJson(List.of(task)), cacheBuster.body(), "Посторонний параметр включил выборку");
+
+        HttpResponse<String> tasks = client.send(HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/tasks?status=NEW")).GET().build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(gson.toJson(List.of(task)), tasks.body(), "В /tasks попали задачи другого типа");
+
+        HttpResponse<String> subtasks = client.send(HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/subtasks?status=NEW")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(gson.toJson(List.of(subtask)), subtasks.body());
+    }
 }
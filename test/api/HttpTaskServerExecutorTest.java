@@ -0,0 +1,97 @@
+package api;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import enums.ExecutorMode;
+import enums.TaskStatus;
+import managers.InMemoryTaskManager;
+import managers.Managers;
+import managers.TaskChangeListener;
+import managers.TaskManager;
+import org.junit.jupiter.api.Test;
+import server.HttpTaskServer;
+import server.adapters.DurationTypeAdapter;
+import server.adapters.LocalDateTimeTypeAdapter;
+import tasks.Task;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HttpTaskServerExecutorTest {
+    TaskManager taskManager = Managers.getConcurrent();
+    HttpClient client = HttpClient.newHttpClient();
+    Gson gson = new GsonBuilder()
+            .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeTypeAdapter())
+            .registerTypeAdapter(Duration.class, new DurationTypeAdapter())
+            .create();
+
+    @Test
+    public void testConcurrentRequestsOnVirtualThreads() throws IOException {
+        HttpTaskServer server = new HttpTaskServer(taskManager, ExecutorMode.VIRTUAL_THREADS, 64, 64);
+        server.start();
+        try {
+            URI tasksUri = URI.create("http://localhost:8080/tasks");
+            List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                String json = gson.toJson(new Task("Test addNewTask", "Test addNewTask description",
+                        TaskStatus.NEW, String.format("%02d.02.25 11:00", i + 1), 60));
+                HttpRequest request = HttpRequest.newBuilder().uri(tasksUri)
+                        .POST(HttpRequest.BodyPublishers.ofString(json)).build();
+                responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+            }
+            for (CompletableFuture<HttpResponse<String>> response : responses) {
+                assertEquals(201, response.join().statusCode());
+            }
+            assertEquals(20, taskManager.getListOfTasks().size());
+            assertEquals(20, taskManager.getPrioritizedTasks().size());
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testStopDetachesFromCallerOwnedManager() throws IOException {
+        List<TaskChangeListener> listeners = new ArrayList<>();
+        AtomicBoolean closed = new AtomicBoolean();
+        TaskManager ownedManager = new InMemoryTaskManager() {
+            @Override
+            public void addChangeListener(TaskChangeListener listener) {
+                super.addChangeListener(listener);
+                listeners.add(listener);
+            }
+
+            @Override
+            public void removeChangeListener(TaskChangeListener listener) {
+                super.removeChangeListener(listener);
+                listeners.remove(listener);
+            }
+
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        };
+        HttpTaskServer server = new HttpTaskServer(ownedManager);
+        assertEquals(2, listeners.size(), "Сервер подписывает кэш и ленту изменений");
+        server.start();
+        server.stop();
+
+        assertTrue(listeners.isEmpty(), "Сервер не отписался от менеджера");
+        assertFalse(closed.get(), "Сервер не должен закрывать чужой менеджер");
+        ownedManager.addTask(new Task("Test addNewTask", "Test addNewTask description",
+                TaskStatus.NEW, "01.02.25 11:00", 60));
+    }
+}
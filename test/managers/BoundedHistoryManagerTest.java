@@ -0,0 +1,101 @@
+package managers;
+
+import enums.EvictionPolicy;
+import enums.TaskStatus;
+import org.junit.jupiter.api.Test;
+import tasks.Task;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedHistoryManagerTest {
+
+    private static Task task(int id) {
+        return new Task(id, "Test addNewTask" + id, "Test addNewTask description",
+                TaskStatus.NEW, "08.02.25 11:00", 180);
+    }
+
+    private static List<Integer> historyIDs(HistoryManager historyManager) {
+        return historyManager.getHistory().stream().map(Task::getId).toList();
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyViewedTaskWhenLru() {
+        final HistoryManager historyManager = Managers.getDefaultHistory(EvictionPolicy.LRU, 3);
+        historyManager.add(task(1));
+        historyManager.add(task(2));
+        historyManager.add(task(3));
+        historyManager.add(task(1));
+        historyManager.add(task(4));
+        assertEquals(List.of(3, 1, 4), historyIDs(historyManager));
+    }
+
+    @Test
+    void shouldEvictLeastFrequentlyViewedTaskWhenLfu() {
+        final HistoryManager historyManager = Managers.getDefaultHistory(EvictionPolicy.LFU, 3);
+        historyManager.add(task(1));
+        historyManager.add(task(1));
+        historyManager.add(task(2));
+        historyManager.add(task(3));
+        historyManager.add(task(2));
+        historyManager.add(task(4));
+        assertEquals(List.of(1, 2, 4), historyIDs(historyManager), "Вытеснена не самая редкая задача");
+        historyManager.add(task(5));
+        assertEquals(List.of(1, 2, 5), historyIDs(historyManager));
+    }
+
+    @Test
+    void shouldNotEvictRemovedTaskFrequencyWhenLfu() {
+        final HistoryManager historyManager = Managers.getDefaultHistory(EvictionPolicy.LFU, 2);
+        historyManager.add(task(1));
+        historyManager.add(task(2));
+        historyManager.add(task(2));
+        historyManager.remove(1);
+        historyManager.add(task(3));
+        historyManager.add(task(4));
+        assertEquals(List.of(2, 4), historyIDs(historyManager));
+    }
+
+    @Test
+    void shouldForgetTasksViewedOutsideTimeWindow() {
+        final MutableClock clock = new MutableClock();
+        final HistoryManager historyManager = new TimeWindowHistoryManager(10, Duration.ofMinutes(30), clock);
+        historyManager.add(task(1));
+        clock.advance(Duration.ofMinutes(20));
+        historyManager.add(task(2));
+        clock.advance(Duration.ofMinutes(20));
+        assertEquals(List.of(2), historyIDs(historyManager), "Устаревшая задача осталась в истории");
+        historyManager.add(task(2));
+        clock.advance(Duration.ofMinutes(20));
+        assertEquals(List.of(2), historyIDs(historyManager));
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant = Instant.parse("2025-02-08T11:00:00Z");
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
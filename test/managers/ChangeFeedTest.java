@@ -0,0 +1,65 @@
+package managers;
+
+import enums.ChangeType;
+import enums.TaskType;
+import exceptions.ChangesExpiredException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeFeedTest {
+    private final ChangeFeed changeFeed = new ChangeFeed(3);
+
+    @Test
+    void shouldReturnChangesAfterSequence() {
+        changeFeed.onChange(ChangeType.ADDED, TaskType.EPIC, 1);
+        changeFeed.onChange(ChangeType.ADDED, TaskType.SUBTASK, 2);
+        changeFeed.onChange(ChangeType.UPDATED, TaskType.EPIC, 1);
+
+        assertEquals(List.of(new ChangeFeed.Change(2, ChangeType.ADDED, TaskType.SUBTASK, 2),
+                new ChangeFeed.Change(3, ChangeType.UPDATED, TaskType.EPIC, 1)), changeFeed.since(1, 10));
+        assertEquals(1, changeFeed.since(0, 1).size(), "Не учтено ограничение количества");
+        assertTrue(changeFeed.since(3, 10).isEmpty());
+    }
+
+    @Test
+    void shouldRejectOverwrittenAndFutureSequences() {
+        for (int id = 1; id <= 5; id++) {
+            changeFeed.onChange(ChangeType.ADDED, TaskType.TASK, id);
+        }
+
+        assertThrows(ChangesExpiredException.class, () -> changeFeed.since(1, 10),
+                "Изменение 2 уже вытеснено из буфера");
+        assertEquals(3, changeFeed.since(2, 10).size());
+        assertThrows(ChangesExpiredException.class, () -> changeFeed.since(6, 10));
+    }
+
+    @Test
+    void shouldWaitForNextChange() throws InterruptedException {
+        assertTrue(changeFeed.await(0, 10, 10, TimeUnit.MILLISECONDS).isEmpty());
+
+        CompletableFuture<List<ChangeFeed.Change>> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return changeFeed.await(0, 10, 10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        Thread.sleep(50);
+        changeFeed.onChange(ChangeType.REMOVED, TaskType.TASK, 7);
+
+        assertEquals(List.of(new ChangeFeed.Change(1, ChangeType.REMOVED, TaskType.TASK, 7)), waiting.join());
+    }
+
+    @Test
+    void shouldReceiveChangesFromManager() {
+        TaskManager taskManager = Managers.getDefault();
+        taskManager.addChangeListener(changeFeed);
+        taskManager.removeAllTasks();
+        assertEquals(0, changeFeed.getLastSequence(), "Пустое удаление не должно попадать в ленту");
+    }
+}
@@ -0,0 +1,68 @@
+package managers;
+
+import enums.StoreMode;
+import enums.TaskStatus;
+import enums.TaskType;
+import org.junit.jupiter.api.Test;
+import tasks.Epic;
+import tasks.Subtask;
+import tasks.Task;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarTaskManagerTest extends TaskManagerTest<ColumnarTaskManager> {
+
+    protected ColumnarTaskManagerTest() {
+        super(new ColumnarTaskManager());
+    }
+
+    @Test
+    void shouldNotChangeStoredTaskThroughReturnedView() {
+        final Task task = taskManager.addTask(new Task("Задача", "Описание", TaskStatus.NEW,
+                "08.02.25 11:00", 60));
+        final Task view = taskManager.getTask(task.getId());
+        view.setStatus(TaskStatus.DONE);
+
+        assertEquals(TaskStatus.NEW, taskManager.getTask(task.getId()).getStatus(),
+                "Изменение представления не должно попадать в хранилище");
+    }
+
+    @Test
+    void shouldQueryTimeRangeLikeObjectStore() {
+        final TaskManager objectManager = new InMemoryTaskManager();
+        for (TaskManager manager : List.of(taskManager, objectManager)) {
+            final Epic epic = manager.addEpic(new Epic("Эпик", "Описание"));
+            for (int i = 0; i < 20; i++) {
+                final String startTime = String.format("%02d.02.25 11:00", i + 1);
+                final TaskStatus status = i % 3 == 0 ? TaskStatus.DONE : TaskStatus.NEW;
+                if (i % 2 == 0) {
+                    manager.addTask(new Task("Задача " + i, "Описание", status, startTime, 60));
+                } else {
+                    manager.addSubtask(new Subtask("Подзадача " + i, "Описание", status, epic.getId(), startTime, 60));
+                }
+            }
+        }
+        final LocalDateTime from = LocalDateTime.of(2025, 2, 3, 0, 0);
+        final LocalDateTime to = LocalDateTime.of(2025, 2, 17, 11, 0);
+        for (TaskQuery query : List.of(
+                new TaskQuery(null, null, from, to, null, 0, 100),
+                new TaskQuery(null, TaskStatus.NEW, from, null, null, 3, 4),
+                new TaskQuery(TaskType.SUBTASK, null, null, to, "подзадача", 0, 100))) {
+            final List<Task> expected = objectManager.query(query);
+            assertFalse(expected.isEmpty());
+            assertEquals(expected, taskManager.query(query), "Выборки различаются: " + query);
+        }
+    }
+
+    @Test
+    void shouldCreateColumnarManagerForStoreMode() {
+        final TaskManager manager = Managers.getDefault(StoreMode.COLUMNAR);
+        final Task task = manager.addTask(new Task("Задача", "Описание", TaskStatus.NEW, "08.02.25 11:00", 60));
+
+        assertEquals(task, manager.getTask(task.getId()), "Задача не найдена");
+        assertEquals(1, manager.getPrioritizedTasks().size(), "Задача не попала в список по приоритету");
+    }
+}
@@ -0,0 +1,103 @@
+package managers;
+
+import enums.TaskStatus;
+import exceptions.TimeIntersectionException;
+import org.junit.jupiter.api.Test;
+import tasks.Epic;
+import tasks.Subtask;
+import tasks.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentTaskManagerTest extends TaskManagerTest<ConcurrentTaskManager> {
+
+    protected ConcurrentTaskManagerTest() {
+        super(new ConcurrentTaskManager());
+    }
+
+    @Test
+    void shouldKeepEpicsConsistentWhenSubtasksAddedConcurrently() throws Exception {
+        final int threads = 8;
+        final int subtasksPerThread = 200;
+        final List<Epic> epicsList = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            epicsList.add(taskManager.addEpic(new Epic("Test addNewEpic", "Test addNewEpic description")));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            final int thread = i;
+            futures.add(executor.submit(() -> {
+                for (int j = 0; j < subtasksPerThread; j++) {
+                    LocalDateTime startTime = LocalDateTime.of(2025, 2, 1, 0, 0)
+                            .plusHours((long) j * threads + thread);
+                    taskManager.addSubtask(new Subtask(0, "Test addNewSubtask", "Test addNewSubtask description",
+                            TaskStatus.DONE, epicsList.get(thread).getId(), startTime, Duration.ofMinutes(60)));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        assertEquals(threads * subtasksPerThread, taskManager.getListOfSubtasks().size());
+        assertEquals(threads * subtasksPerThread, taskManager.getPrioritizedTasks().size());
+        assertEquals(threads * subtasksPerThread + threads,
+                taskManager.addTask(new Task("Test addNewTask", "Test addNewTask description",
+                        TaskStatus.NEW, "01.01.25 11:00", 60)).getId() - 1, "id выдаются не атомарно");
+        for (Epic epic : epicsList) {
+            assertEquals(subtasksPerThread, epic.getSubtaskIDs().size());
+            assertEquals(TaskStatus.DONE, epic.getStatus(), "Статус эпика вычисляется неверно");
+        }
+    }
+
+    @Test
+    void shouldAcceptOnlyOneOfConcurrentIntersectingTasks() throws Exception {
+        final int threads = 8;
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                try {
+                    taskManager.addTask(new Task("Test addNewTask", "Test addNewTask description",
+                            TaskStatus.NEW, "08.02.25 11:00", 60));
+                } catch (TimeIntersectionException e) {
+                    rejected.incrementAndGet();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertEquals(threads - 1, rejected.get());
+        assertEquals(1, taskManager.getPrioritizedTasks().size());
+    }
+
+    @Test
+    void shouldReturnEpicCopiesTakenUnderEpicLock() {
+        Epic epic = taskManager.addEpic(new Epic("Test addNewEpic", "Test addNewEpic description"));
+        Epic read = taskManager.getEpic(epic.getId());
+        taskManager.addSubtask(new Subtask("Test addNewSubtask", "Test addNewSubtask description",
+                TaskStatus.DONE, epic.getId(), "09.02.25 11:00", 60));
+
+        assertTrue(read != epic, "Эпик отдан без копирования");
+        assertTrue(read.getSubtaskIDs().isEmpty(), "Копия эпика изменилась вместе с эпиком");
+        Epic listed = taskManager.getListOfEpics().getFirst();
+        assertEquals(1, listed.getSubtaskIDs().size());
+        assertEquals(TaskStatus.DONE, listed.getStatus());
+    }
+}
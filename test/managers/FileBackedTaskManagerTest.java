@@ -1,22 +1,41 @@
 package managers;
 
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 import enums.TaskStatus;
+import enums.Durability;
+import enums.PersistenceMode;
 import exceptions.ManagerSaveException;
+import exceptions.NotFoundException;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import server.adapters.DurationTypeAdapter;
+import server.adapters.LocalDateTimeTypeAdapter;
 import tasks.Epic;
 import tasks.Subtask;
 import tasks.Task;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class FileBackedTaskManagerTest extends TaskManagerTest<FileBackedTaskManager> {
     private static final File file = new File("./fileBacked.csv");;
     private static TaskManager fileBackedTaskManager;
+    // Временные файлы и менеджеры теста, закрываются и удаляются после каждого теста
+    private static final List<File> tempFiles = new ArrayList<>();
+    private static final List<TaskManager> managers = new ArrayList<>();
     Task addedTask1;
     Epic addedEpic1;
     Subtask addedSubtask1;
@@ -25,12 +44,27 @@ class FileBackedTaskManagerTest extends TaskManagerTest<FileBackedTaskManager> {
     Subtask addedSubtask2;
 
     public FileBackedTaskManagerTest() throws IOException {
-        super(FileBackedTaskManager.loadFromFile(File.createTempFile("testFile", ".tmp")));
+        super(open(createTempFile("testFile")));
+    }
+
+    private static File createTempFile(String prefix) throws IOException {
+        File tempFile = File.createTempFile(prefix, ".tmp");
+        tempFiles.add(tempFile);
+        return tempFile;
+    }
+
+    private static FileBackedTaskManager open(File file) {
+        return open(FileBackedTaskManager.loadFromFile(file));
+    }
+
+    private static FileBackedTaskManager open(FileBackedTaskManager manager) {
+        managers.add(manager);
+        return manager;
     }
 
     @BeforeEach
     public void BeforeEach() {
-        fileBackedTaskManager = FileBackedTaskManager.loadFromFile(file);
+        fileBackedTaskManager = open(file);
         addedTask1 = fileBackedTaskManager.addTask(new Task("Task", "Task", TaskStatus.NEW, "09.02.25 11:00", 180));
         addedEpic1 = fileBackedTaskManager.addEpic(new Epic("Epic", "Epic"));
         addedSubtask1 = fileBackedTaskManager.addSubtask(new Subtask("Subtask",
@@ -42,14 +76,24 @@ class FileBackedTaskManagerTest extends TaskManagerTest<FileBackedTaskManager> {
     }
 
     @AfterEach
-    void afterEach() {
+    void afterEach() throws IOException {
         fileBackedTaskManager.removeAllTasks();
         fileBackedTaskManager.removeAllEpics();
+        for (TaskManager manager : managers) {
+            manager.close();
+        }
+        managers.clear();
+        for (File tempFile : tempFiles) {
+            Files.deleteIfExists(tempFile.toPath());
+            Files.deleteIfExists(Path.of(tempFile.getPath() + ".journal"));
+            Files.deleteIfExists(Path.of(tempFile.getPath() + ".journal.compacting"));
+        }
+        tempFiles.clear();
     }
 
     @Test
     public void shouldSaveTasksIntoFile() {
-        FileBackedTaskManager newFileBackedTaskManager = FileBackedTaskManager.loadFromFile(file);
+        FileBackedTaskManager newFileBackedTaskManager = open(file);
         assertEquals(fileBackedTaskManager.getTask(addedTask1.getId()).getTaskName(),
                 newFileBackedTaskManager.getTask(addedTask1.getId()).getTaskName());
         assertEquals(fileBackedTaskManager.getSubtask(addedSubtask1.getId()).getTaskName(),
@@ -75,4 +119,156 @@ class FileBackedTaskManagerTest extends TaskManagerTest<FileBackedTaskManager> {
         assertThrows(ManagerSaveException.class, () -> FileBackedTaskManager.loadFromFile(new File("")));
         assertThrows(ManagerSaveException.class, () -> FileBackedTaskManager.loadFromFile(new File("hamburger")));
     }
+
+    @Test
+    void shouldPersistBatchOnceInBothModes() throws IOException {
+        for (PersistenceMode mode : PersistenceMode.values()) {
+            for (Durability durability : List.of(Durability.SYNC, Durability.FSYNC)) {
+                persistBatch(mode, durability);
+            }
+        }
+    }
+
+    private void persistBatch(PersistenceMode mode, Durability durability) throws IOException {
+        File batchFile = createTempFile("batchFile");
+        FileBackedTaskManager batchManager = open(FileBackedTaskManager.loadFromFile(batchFile, mode, durability));
+        Epic epic = batchManager.addEpic(new Epic("Epic", "Epic"));
+        batchManager.addAll(List.of(
+                new Subtask("Subtask", "Subtask", TaskStatus.DONE, epic.getId(), "07.02.25 11:00", 180),
+                new Subtask("Subtask", "Subtask", TaskStatus.NEW, epic.getId(), "08.02.25 11:00", 180)), true);
+        batchManager.close();
+
+        FileBackedTaskManager restoredManager = open(FileBackedTaskManager.loadFromFile(batchFile, mode));
+        assertEquals(2, restoredManager.getListOfSubtasks().size(),
+                "Пакет не сохранён в режиме " + mode + " " + durability);
+        assertEquals(TaskStatus.IN_PROGRESS, restoredManager.getEpic(epic.getId()).getStatus());
+        restoredManager.close();
+    }
+
+    @Test
+    void shouldRestoreStateFromJournal() throws IOException {
+        File journalFile = createTempFile("journalFile");
+        FileBackedTaskManager journalManager = open(FileBackedTaskManager.loadFromFile(journalFile, PersistenceMode.JOURNAL));
+        Task task = journalManager.addTask(new Task("Task", "Task", TaskStatus.NEW, "09.02.25 11:00", 180));
+        Epic epic = journalManager.addEpic(new Epic("Epic", "Epic"));
+        Subtask subtask1 = journalManager.addSubtask(new Subtask("Subtask",
+                "Subtask", TaskStatus.DONE, epic.getId(), "07.02.25 11:00", 180));
+        Subtask subtask2 = journalManager.addSubtask(new Subtask("Subtask",
+                "Subtask", TaskStatus.DONE, epic.getId(), "08.02.25 11:00", 180));
+        journalManager.updateTask(new Task(task.getId(), "Updated task", "Task", TaskStatus.DONE,
+                "09.02.25 11:00", 180));
+        journalManager.removeSubtask(subtask1.getId());
+        assertEquals(0, journalFile.length(), "В журнальном режиме снимок не должен переписываться");
+        Files.writeString(Path.of(journalFile.getPath() + ".journal"), "PUT,7,TA", StandardOpenOption.APPEND);
+
+        FileBackedTaskManager restoredManager = open(FileBackedTaskManager.loadFromFile(journalFile, PersistenceMode.JOURNAL));
+        assertEquals("Updated task", restoredManager.getTask(task.getId()).getTaskName());
+        assertEquals(List.of(subtask2.getId()), restoredManager.getEpic(epic.getId()).getSubtaskIDs());
+        assertEquals(TaskStatus.DONE, restoredManager.getEpic(epic.getId()).getStatus());
+        assertEquals(2, restoredManager.getPrioritizedTasks().size());
+        assertThrows(NotFoundException.class, () -> restoredManager.getSubtask(subtask1.getId()));
+        Task newTask = restoredManager.addTask(new Task("Task", "Task", TaskStatus.NEW, "10.02.25 11:00", 180));
+        assertEquals(subtask2.getId() + 1, newTask.getId(), "Счётчик id не восстановлен");
+
+        restoredManager.compact();
+        restoredManager.close();
+        assertEquals(0, Files.size(Path.of(journalFile.getPath() + ".journal")), "Журнал не очищен после компактизации");
+        FileBackedTaskManager compactedManager = open(journalFile);
+        assertEquals(2, compactedManager.getListOfTasks().size());
+        assertEquals(1, compactedManager.getListOfSubtasks().size());
+    }
+
+    @Test
+    void shouldIgnoreTornJournalRecord() throws IOException {
+        File journalFile = createTempFile("journalFile");
+        FileBackedTaskManager journalManager = open(FileBackedTaskManager.loadFromFile(journalFile, PersistenceMode.JOURNAL));
+        Task lastTask = null;
+        for (int i = 0; i < 13; i++) {
+            lastTask = journalManager.addTask(new Task("Task", "Task", TaskStatus.NEW,
+                    String.format("%02d.02.25 11:00", i + 1), 30));
+        }
+        journalManager.removeTask(lastTask.getId());
+        journalManager.close();
+        Path journalPath = Path.of(journalFile.getPath() + ".journal");
+        try (FileChannel channel = FileChannel.open(journalPath, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 2);
+        }
+
+        FileBackedTaskManager restoredManager = open(FileBackedTaskManager.loadFromFile(journalFile, PersistenceMode.JOURNAL));
+        assertEquals(13, restoredManager.getListOfTasks().size(), "Оборванная запись журнала применена");
+        assertEquals(1, restoredManager.getTask(1).getId());
+        assertEquals(lastTask.getId(), restoredManager.getTask(lastTask.getId()).getId());
+    }
+
+    @Test
+    void shouldLoadBinarySnapshotConvertedFromCsv() throws IOException {
+        File csvFile = createTempFile("csvFile");
+        File binaryFile = createTempFile("binaryFile");
+        FileBackedTaskManager csvManager = open(csvFile);
+        Task task = csvManager.addTask(new Task("Задача", "Описание", TaskStatus.NEW, "09.02.25 11:00", 180));
+        Epic epic = csvManager.addEpic(new Epic("Эпик", "Описание"));
+        Subtask subtask = csvManager.addSubtask(new Subtask("Подзадача",
+                "Описание", TaskStatus.IN_PROGRESS, epic.getId(), "07.02.25 11:00", 45));
+
+        FileBackedTaskManager.convertToBinary(csvFile, binaryFile);
+        FileBackedTaskManager binaryManager = open(binaryFile);
+        assertEquals(task.toString(), binaryManager.getTask(task.getId()).toString());
+        assertEquals(subtask.toString(), binaryManager.getSubtask(subtask.getId()).toString());
+        assertEquals(epic.toString(), binaryManager.getEpic(epic.getId()).toString());
+
+        binaryManager.removeTask(task.getId());
+        FileBackedTaskManager reloadedManager = open(binaryFile);
+        assertTrue(reloadedManager.getListOfTasks().isEmpty(), "Бинарный снимок не обновился");
+        assertEquals(1, reloadedManager.getSubtasksByEpicID(epic.getId()).size());
+    }
+
+    @Test
+    void shouldEncodeNullFieldsInBinarySnapshot() throws IOException {
+        Gson gson = new GsonBuilder()
+                .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeTypeAdapter())
+                .registerTypeAdapter(Duration.class, new DurationTypeAdapter())
+                .create();
+        Task task = gson.fromJson("{\"id\":1}", Task.class);
+        File binaryFile = createTempFile("binaryFile");
+        Files.write(binaryFile.toPath(), BinarySnapshot.encode(List.of(task)));
+
+        Task restored = BinarySnapshot.read(binaryFile.toPath()).get(0);
+        assertEquals(1, restored.getId());
+        assertEquals("", restored.getTaskName(), "Пустое название должно загружаться как в конструкторе Task");
+        assertEquals("", restored.getTaskDescription());
+        assertEquals(TaskStatus.NEW, restored.getStatus());
+        assertEquals(0, restored.getDuration().toMinutes());
+    }
+
+    @Test
+    void shouldWriteSnapshotOnlyOnFlushInAsyncMode() throws IOException {
+        File asyncFile = createTempFile("asyncFile");
+        FileBackedTaskManager asyncManager = open(FileBackedTaskManager.loadFromFile(asyncFile,
+                PersistenceMode.SNAPSHOT, Durability.ASYNC, TimeUnit.HOURS.toMillis(1), 1));
+        asyncManager.addTask(new Task("Task", "Task", TaskStatus.NEW, "09.02.25 11:00", 180));
+        asyncManager.addTask(new Task("Task", "Task", TaskStatus.NEW, "10.02.25 11:00", 180));
+        assertEquals(0, asyncFile.length(), "Файл не должен записываться до сброса");
+
+        asyncManager.flush();
+        assertEquals(2, open(asyncFile).getListOfTasks().size());
+        asyncManager.removeAllTasks();
+        asyncManager.close();
+        assertTrue(open(asyncFile).getListOfTasks().isEmpty(),
+                "Изменения не сохранены при закрытии");
+    }
+
+    @Test
+    void shouldIgnoreFlushAfterClose() throws IOException {
+        for (PersistenceMode mode : PersistenceMode.values()) {
+            File closedFile = createTempFile("closedFile");
+            FileBackedTaskManager closedManager = open(FileBackedTaskManager.loadFromFile(closedFile, mode,
+                    Durability.ASYNC));
+            closedManager.addTask(new Task("Task", "Task", TaskStatus.NEW, "09.02.25 11:00", 180));
+            closedManager.close();
+            closedManager.flush();
+            closedManager.close();
+            assertEquals(1, open(FileBackedTaskManager.loadFromFile(closedFile, mode)).getListOfTasks().size(),
+                    "Изменения не сохранены при закрытии в режиме " + mode);
+        }
+    }
 }
@@ -3,10 +3,13 @@ package managers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import enums.TaskStatus;
+import exceptions.NotFoundException;
 import tasks.Epic;
 import tasks.Subtask;
 import tasks.Task;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class InMemoryHistoryManagerTest {
@@ -81,4 +84,42 @@ class InMemoryHistoryManagerTest {
         assertEquals(task, taskManager.getHistory().get(0));
         assertEquals(subtask2, taskManager.getHistory().get(3));
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldRemoveOnlyGivenTasksWhenRemoveAll() {
+        final HistoryManager historyManager = Managers.getDefaultHistory();
+        for (int i = 1; i <= 5; i++) {
+            historyManager.add(new Task(i, "Test addNewTask" + i,
+                    "Test addNewTask description", TaskStatus.NEW, "08.02.25 11:00", 180));
+        }
+        historyManager.removeAll(List.of(1, 3, 5, 7));
+        assertEquals(List.of(2, 4), historyManager.getHistory().stream().map(Task::getId).toList());
+        historyManager.removeAll(List.of(2, 4));
+        assertTrue(historyManager.getHistory().isEmpty());
+    }
+
+    @Test
+    void shouldAddTaskAgainAfterItWasRemoved() {
+        final HistoryManager historyManager = Managers.getDefaultHistory();
+        final Task task = new Task(1, "Test addNewTask",
+                "Test addNewTask description", TaskStatus.NEW, "08.02.25 11:00", 180);
+        historyManager.add(task);
+        historyManager.remove(task.getId());
+        historyManager.remove(task.getId());
+        historyManager.add(task);
+        assertEquals(List.of(task), historyManager.getHistory(), "Задача не вернулась в историю после удаления");
+    }
+
+    @Test
+    void shouldReturnHistoryPageByOffsetAndCursor() {
+        final HistoryManager historyManager = Managers.getDefaultHistory();
+        for (int i = 1; i <= 5; i++) {
+            historyManager.add(new Task(i, "Test addNewTask" + i,
+                    "Test addNewTask description", TaskStatus.NEW, "08.02.25 11:00", 180));
+        }
+        assertEquals(List.of(2, 3), historyManager.getHistory(1, 2).stream().map(Task::getId).toList());
+        assertEquals(List.of(4, 5), historyManager.getHistoryAfter(3, 10).stream().map(Task::getId).toList());
+        assertTrue(historyManager.getHistory(10, 2).isEmpty());
+        assertThrows(NotFoundException.class, () -> historyManager.getHistoryAfter(7, 2));
+    }
+}
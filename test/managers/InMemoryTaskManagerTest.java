@@ -5,6 +5,8 @@ import org.junit.jupiter.api.Test;
 import tasks.Epic;
 import tasks.Subtask;
 
+import java.time.LocalDateTime;
+
 import static org.junit.jupiter.api.Assertions.*;
 import enums.TaskStatus;
 
@@ -55,4 +57,34 @@ class InMemoryTaskManagerTest extends TaskManagerTest<InMemoryTaskManager> {
 
         assertEquals(TaskStatus.IN_PROGRESS, epic.getStatus(), "Статус эпика вычисляется неверно");
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldUpdateEpicTimeAndStatusWhenSubtasksChange() {
+        final Epic epic = taskManager.addEpic(new Epic("Test addNewEpic",
+                "Test addNewEpic description"));
+        final Subtask subtask1 = taskManager.addSubtask(new Subtask("Test addNewSubtask1",
+                "Test addNewSubtask1 description", TaskStatus.DONE, epic.getId(), "08.02.25 11:00", 60));
+        final Subtask subtask2 = taskManager.addSubtask(new Subtask("Test addNewSubtask2",
+                "Test addNewSubtask2 description", TaskStatus.NEW, epic.getId(), "09.02.25 11:00", 60));
+        final Subtask subtask3 = taskManager.addSubtask(new Subtask("Test addNewSubtask3",
+                "Test addNewSubtask3 description", TaskStatus.DONE, epic.getId(), "10.02.25 11:00", 60));
+        assertEquals(TaskStatus.IN_PROGRESS, epic.getStatus(), "Статус эпика вычисляется неверно");
+        assertEquals(LocalDateTime.of(2025, 2, 8, 11, 0), epic.getStartTime());
+        assertEquals(LocalDateTime.of(2025, 2, 10, 12, 0), epic.getEndTime());
+
+        taskManager.updateSubtask(new Subtask(subtask2.getId(), "Test updateSubtask2",
+                "Test updateSubtask2 description", TaskStatus.DONE, epic.getId(), "11.02.25 11:00", 30));
+        assertEquals(TaskStatus.DONE, epic.getStatus(), "Статус эпика вычисляется неверно");
+        assertEquals(LocalDateTime.of(2025, 2, 11, 11, 30), epic.getEndTime());
+
+        taskManager.removeSubtask(subtask1.getId());
+        assertEquals(LocalDateTime.of(2025, 2, 10, 11, 0), epic.getStartTime());
+        assertEquals(LocalDateTime.of(2025, 2, 11, 11, 30), epic.getEndTime());
+
+        taskManager.removeSubtask(subtask3.getId());
+        taskManager.removeSubtask(subtask2.getId());
+        assertEquals(TaskStatus.NEW, epic.getStatus(), "Статус пустого эпика должен быть NEW");
+        assertEquals(LocalDateTime.of(2025, 2, 11, 11, 0), epic.getStartTime(),
+                "Время пустого эпика не должно меняться");
+    }
+}
@@ -1,6 +1,9 @@
 package managers;
 
+import enums.EvictionPolicy;
+import enums.TaskStatus;
 import org.junit.jupiter.api.Test;
+import tasks.Task;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -11,9 +14,32 @@ class ManagersTest {
         assertInstanceOf(InMemoryTaskManager.class, Managers.getDefault());
     }
 
+    @Test
+    void shouldReturnConcurrentTaskManagerWhenGetConcurrent() {
+        assertInstanceOf(ConcurrentTaskManager.class, Managers.getConcurrent());
+    }
+
     @Test
     void shouldReturnInMemoryHistoryManagerWhenGetDefaultHistory() {
         assertInstanceOf(InMemoryHistoryManager.class, Managers.getDefaultHistory());
     }
 
+    @Test
+    void shouldReturnBoundedHistoryManagerForEvictionPolicy() {
+        assertInstanceOf(LruHistoryManager.class, Managers.getDefaultHistory(EvictionPolicy.LRU, 10));
+        assertInstanceOf(LfuHistoryManager.class, Managers.getDefaultHistory(EvictionPolicy.LFU, 10));
+        assertInstanceOf(TimeWindowHistoryManager.class, Managers.getDefaultHistory(EvictionPolicy.TIME_WINDOW, 10));
+    }
+
+    @Test
+    void shouldUseBoundedHistoryInConcurrentTaskManager() {
+        TaskManager taskManager = Managers.getConcurrent(Managers.getDefaultHistory(EvictionPolicy.LRU, 2));
+        for (int i = 0; i < 3; i++) {
+            Task task = taskManager.addTask(new Task("Test addNewTask", "Test addNewTask description",
+                    TaskStatus.NEW, String.format("%02d.02.25 11:00", i + 1), 60));
+            taskManager.getTask(task.getId());
+        }
+        assertEquals(2, taskManager.getHistory().size(), "История ограничена двумя задачами");
+    }
+
 }
\ No newline at end of file
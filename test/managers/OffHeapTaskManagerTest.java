@@ -0,0 +1,31 @@
+package managers;
+
+import enums.StoreMode;
+import enums.TaskStatus;
+import org.junit.jupiter.api.Test;
+import tasks.Task;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapTaskManagerTest extends TaskManagerTest<OffHeapTaskManager> {
+
+    protected OffHeapTaskManagerTest() {
+        super(new OffHeapTaskManager());
+    }
+
+    @Test
+    void shouldReturnOffHeapTaskManagerForStoreMode() {
+        assertInstanceOf(OffHeapTaskManager.class, Managers.getDefault(StoreMode.OFF_HEAP));
+    }
+
+    @Test
+    void shouldKeepTaskAfterUpdateWithLongerText() {
+        final Task task = taskManager.addTask(new Task("Задача", "Описание", TaskStatus.NEW, "08.02.25 11:00", 60));
+        final Task updated = new Task(task.getId(), "Задача", "Описание".repeat(100), TaskStatus.DONE,
+                "08.02.25 11:00", 60);
+        taskManager.updateTask(updated);
+
+        assertEquals(updated.getTaskDescription(), taskManager.getTask(task.getId()).getTaskDescription());
+        assertEquals(TaskStatus.DONE, taskManager.getTask(task.getId()).getStatus());
+    }
+}
@@ -1,6 +1,9 @@
 package managers;
 
+import enums.ChangeType;
+import enums.TaskCollection;
 import enums.TaskStatus;
+import enums.TaskType;
 import exceptions.NotFoundException;
 import exceptions.TimeIntersectionException;
 import org.junit.jupiter.api.AfterAll;
@@ -10,6 +13,7 @@ import tasks.Epic;
 import tasks.Subtask;
 import tasks.Task;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -224,6 +228,43 @@ abstract class TaskManagerTest<T extends TaskManager> {
 
     }
 
+    @Test
+    void shouldCheckIntersectionOnlyWithNeighbours() {
+        taskManager.addTask(new Task("Test addNewTask",
+                "Test addNewTask description", TaskStatus.NEW, "08.02.25 10:00", 60));
+        Task task2 = taskManager.addTask(new Task("Test addNewTask",
+                "Test addNewTask description", TaskStatus.NEW, "08.02.25 12:00", 60));
+        taskManager.addTask(new Task("Test addNewTask",
+                "Test addNewTask description", TaskStatus.NEW, "08.02.25 11:00", 60));
+        taskManager.addTask(new Task("Test addNewTask",
+                "Test addNewTask description", TaskStatus.NEW, "08.02.25 13:00", 0));
+        assertThrows(TimeIntersectionException.class, () -> taskManager.addTask(new Task("Test addNewTask",
+                "Test addNewTask description", TaskStatus.NEW, "08.02.25 12:30", 0)));
+        assertThrows(TimeIntersectionException.class, () -> taskManager.addTask(new Task("Test addNewTask",
+                "Test addNewTask description", TaskStatus.NEW, "08.02.25 09:00", 300)));
+        assertThrows(TimeIntersectionException.class, () -> taskManager.updateTask(new Task(task2.getId(),
+                "Test updateTask", "Test updateTask description", TaskStatus.NEW, "08.02.25 11:30", 60)));
+        taskManager.updateTask(new Task(task2.getId(), "Test updateTask",
+                "Test updateTask description", TaskStatus.NEW, "08.02.25 12:00", 30));
+        assertEquals(4, taskManager.getPrioritizedTasks().size());
+        assertEquals("08.02.25 10:00", taskManager.getPrioritizedTasks().iterator().next()
+                .getStartTime().format(Task.DATE_TIME_FORMATTER), "Задачи отсортированы неверно");
+    }
+
+    @Test
+    void shouldRemoveOldTimeSlotWhenTaskChangedInPlace() {
+        final Task task = taskManager.addTask(new Task("Test addNewTask",
+                "Test addNewTask description", TaskStatus.NEW, "08.02.25 11:00", 60));
+        task.setStartTime(task.getStartTime().plusHours(2));
+        taskManager.updateTask(task);
+        assertEquals(1, taskManager.getPrioritizedTasks().size(), "Старое время задачи осталось в списке");
+        final Task task2 = taskManager.addTask(new Task("Test addNewTask",
+                "Test addNewTask description", TaskStatus.NEW, "08.02.25 11:00", 60));
+        assertEquals(2, taskManager.getPrioritizedTasks().size());
+        taskManager.removeTask(task.getId());
+        assertEquals(task2, taskManager.getPrioritizedTasks().iterator().next());
+    }
+
     @Test
     void shouldReturnCorrectInformationAboutHistory() {
         final Task task1 = taskManager.addTask(new Task("Test addNewTask",
@@ -245,4 +286,155 @@ abstract class TaskManagerTest<T extends TaskManager> {
         taskManager.removeAllEpics();
         assertEquals(1, taskManager.getHistory().size());
     }
+
+    @Test
+    void shouldReturnPrioritizedTasksInTimeRangeAndAfterCursor() {
+        final Task task1 = taskManager.addTask(new Task("Test addNewTask1",
+                "Test addNewTask1 description", TaskStatus.NEW, "08.02.25 08:00", 60));
+        final Task task2 = taskManager.addTask(new Task("Test addNewTask2",
+                "Test addNewTask2 description", TaskStatus.NEW, "08.02.25 10:00", 60));
+        final Task task3 = taskManager.addTask(new Task("Test addNewTask3",
+                "Test addNewTask3 description", TaskStatus.NEW, "08.02.25 12:00", 60));
+
+        assertEquals(List.of(task2), List.copyOf(taskManager.getPrioritizedTasks(
+                task2.getStartTime(), task3.getStartTime())), "Неверные задачи в промежутке");
+        assertEquals(List.of(task1, task2), List.copyOf(taskManager.getPrioritizedTasks(null, task3.getStartTime())));
+        assertEquals(List.of(task2, task3), List.copyOf(taskManager.getPrioritizedTasksAfter(task1.getId())));
+        assertThrows(NotFoundException.class, () -> taskManager.getPrioritizedTasksAfter(100));
+    }
+
+    @Test
+    void shouldSkipConflictingTasksWhenAddAll() {
+        final Task existingTask = taskManager.addTask(new Task("Test addNewTask",
+                "Test addNewTask description", TaskStatus.NEW, "08.02.25 11:00", 60));
+        final Epic epic = taskManager.addEpic(new Epic("Test addNewEpic", "Test addNewEpic description"));
+        final Subtask subtask1 = new Subtask("Test addNewSubtask1",
+                "Test addNewSubtask1 description", TaskStatus.DONE, epic.getId(), "08.02.25 13:00", 60);
+        final Subtask conflictWithBatch = new Subtask("Test addNewSubtask2",
+                "Test addNewSubtask2 description", TaskStatus.NEW, epic.getId(), "08.02.25 13:30", 60);
+        final Subtask conflictWithExisting = new Subtask(existingTask.getId(), "Test addNewSubtask3",
+                "Test addNewSubtask3 description", TaskStatus.NEW, epic.getId(), "08.02.25 11:30", 60);
+        final Subtask subtask4 = new Subtask("Test addNewSubtask4",
+                "Test addNewSubtask4 description", TaskStatus.DONE, epic.getId(), "08.02.25 09:00", 60);
+        final Subtask withoutEpic = new Subtask("Test addNewSubtask5",
+                "Test addNewSubtask5 description", TaskStatus.NEW, 100, "08.02.25 20:00", 60);
+
+        final List<Subtask> added = taskManager.addAll(
+                List.of(subtask1, conflictWithBatch, conflictWithExisting, subtask4, withoutEpic), false);
+
+        assertEquals(List.of(subtask1, subtask4), added, "Неверный набор добавленных подзадач");
+        assertEquals(List.of(subtask1.getId(), subtask4.getId()), taskManager.getEpic(epic.getId()).getSubtaskIDs());
+        assertEquals(TaskStatus.DONE, taskManager.getEpic(epic.getId()).getStatus());
+        assertEquals(subtask4.getStartTime(), taskManager.getEpic(epic.getId()).getStartTime());
+        assertEquals(3, taskManager.getPrioritizedTasks().size());
+    }
+
+    @Test
+    void shouldAddNothingWhenAddAllAtomicallyWithConflict() {
+        final Task existingTask = taskManager.addTask(new Task("Test addNewTask",
+                "Test addNewTask description", TaskStatus.NEW, "08.02.25 11:00", 60));
+        final List<Task> batch = List.of(
+                new Task(42, "Test addNewTask1", "Test addNewTask1 description", TaskStatus.NEW, "08.02.25 13:00", 60),
+                new Task("Test addNewTask2", "Test addNewTask2 description", TaskStatus.NEW, "08.02.25 11:59", 60));
+
+        assertThrows(TimeIntersectionException.class, () -> taskManager.addAll(batch, true));
+        assertEquals(42, batch.getFirst().getId(), "Отклонённый пакет изменён");
+        assertEquals(List.of(existingTask), taskManager.getListOfTasks(), "Пакет добавлен частично");
+        assertEquals(1, taskManager.getPrioritizedTasks().size());
+
+        final List<Task> added = taskManager.addAll(batch.subList(0, 1), true);
+        assertEquals(existingTask.getId() + 1, added.getFirst().getId());
+    }
+
+    @Test
+    void shouldNotifyListenersAboutSubtaskAndItsEpic() {
+        final List<String> changes = new ArrayList<>();
+        taskManager.addChangeListener((change, type, id) -> changes.add(change + " " + type + " " + id));
+        final Epic epic = taskManager.addEpic(new Epic("Test addNewEpic", "Test addNewEpic description"));
+        final Subtask subtask = taskManager.addSubtask(new Subtask("Test addNewSubtask",
+                "Test addNewSubtask description", TaskStatus.NEW, epic.getId(), "08.02.25 13:00", 60));
+        taskManager.removeAllSubtasks();
+
+        assertEquals(List.of(
+                ChangeType.ADDED + " " + TaskType.EPIC + " " + epic.getId(),
+                ChangeType.ADDED + " " + TaskType.SUBTASK + " " + subtask.getId(),
+                ChangeType.UPDATED + " " + TaskType.EPIC + " " + epic.getId(),
+                ChangeType.REMOVED + " " + TaskType.SUBTASK + " " + subtask.getId(),
+                ChangeType.UPDATED + " " + TaskType.EPIC + " " + epic.getId()), changes);
+    }
+
+    @Test
+    void shouldIncrementVersionsOfChangedCollectionsOnly() {
+        final Epic epic = taskManager.addEpic(new Epic("Test addNewEpic", "Test addNewEpic description"));
+        final long tasksVersion = taskManager.getVersion(TaskCollection.TASKS);
+        final long epicsVersion = taskManager.getVersion(TaskCollection.EPICS);
+        final long prioritizedVersion = taskManager.getVersion(TaskCollection.PRIORITIZED);
+        final long historyVersion = taskManager.getVersion(TaskCollection.HISTORY);
+
+        taskManager.addSubtask(new Subtask("Test addNewSubtask",
+                "Test addNewSubtask description", TaskStatus.NEW, epic.getId(), "08.02.25 13:00", 60));
+        assertEquals(tasksVersion, taskManager.getVersion(TaskCollection.TASKS));
+        assertTrue(taskManager.getVersion(TaskCollection.EPICS) > epicsVersion, "Эпик изменился вместе с подзадачей");
+        assertTrue(taskManager.getVersion(TaskCollection.PRIORITIZED) > prioritizedVersion);
+        assertEquals(historyVersion, taskManager.getVersion(TaskCollection.HISTORY));
+
+        taskManager.getEpic(epic.getId());
+        assertTrue(taskManager.getVersion(TaskCollection.HISTORY) > historyVersion);
+
+        final long viewedVersion = taskManager.getVersion(TaskCollection.HISTORY);
+        taskManager.addSubtask(new Subtask("Test addNewSubtask",
+                "Test addNewSubtask description", TaskStatus.NEW, epic.getId(), "08.02.25 15:00", 60));
+        assertTrue(taskManager.getVersion(TaskCollection.HISTORY) > viewedVersion,
+                "Просмотренный эпик изменился вместе с подзадачей");
+    }
+
+    @Test
+    void shouldQueryByStatusTypeTimeAndText() {
+        final Task first = taskManager.addTask(new Task("Купить молоко", "Зайти в магазин", TaskStatus.NEW,
+                "08.02.25 11:00", 60));
+        final Task second = taskManager.addTask(new Task("Позвонить в магазин", "Уточнить заказ",
+                TaskStatus.IN_PROGRESS, "08.02.25 13:00", 60));
+        final Epic epic = taskManager.addEpic(new Epic("Переезд", "Найти магазин мебели"));
+        final Subtask subtask = taskManager.addSubtask(new Subtask("Заказать ёлку", "Через магазин",
+                TaskStatus.IN_PROGRESS, epic.getId(), "08.02.25 09:00", 60));
+
+        assertEquals(List.of(second, epic, subtask),
+                taskManager.query(new TaskQuery(null, TaskStatus.IN_PROGRESS, null, null, null, 0, 10)));
+        assertEquals(List.of(first, second, epic, subtask),
+                taskManager.query(new TaskQuery(null, null, null, null, "МАГАЗИН", 0, 10)));
+        assertEquals(List.of(subtask),
+                taskManager.query(new TaskQuery(TaskType.SUBTASK, null, null, null, "елку", 0, 10)));
+        assertEquals(List.of(subtask, first),
+                taskManager.query(new TaskQuery(null, null, subtask.getStartTime(), second.getStartTime(),
+                        "магазин", 0, 10)), "Промежуток времени задаёт порядок по началу задачи");
+        assertEquals(List.of(second),
+                taskManager.query(new TaskQuery(TaskType.TASK, null, null, null, "магазин", 1, 1)));
+        assertTrue(taskManager.getHistory().isEmpty(), "Запрос не должен попадать в историю");
+
+        taskManager.updateTask(new Task(first.getId(), "Купить хлеб", "", TaskStatus.DONE, "08.02.25 11:00", 60));
+        taskManager.removeTask(second.getId());
+        assertTrue(taskManager.query(new TaskQuery(TaskType.TASK, null, null, null, "магазин", 0, 10)).isEmpty());
+        assertEquals(1, taskManager.query(new TaskQuery(null, TaskStatus.DONE, null, null, "хлеб", 0, 10)).size());
+
+        taskManager.removeAllEpics();
+        assertTrue(taskManager.query(new TaskQuery(null, null, null, null, "магазин", 0, 10)).isEmpty());
+    }
+
+    @Test
+    void shouldSearchTextRankedAndPaged() {
+        final Task inDescription = taskManager.addTask(new Task("Позвонить", "Обсудить отчёт", TaskStatus.NEW,
+                "08.02.25 11:00", 60));
+        final Epic inName = taskManager.addEpic(new Epic("Отчёт за квартал", "Собрать данные"));
+        final Subtask inPrefix = taskManager.addSubtask(new Subtask("Отчётность", "Проверить", TaskStatus.NEW,
+                inName.getId(), "08.02.25 13:00", 60));
+
+        assertEquals(List.of(inName, inPrefix, inDescription), taskManager.search("отчет", 0, 10),
+                "Слова названия весят больше слов описания");
+        assertEquals(List.of(inPrefix), taskManager.search("отчет", 1, 1));
+        assertTrue(taskManager.search("отчет", 3, 10).isEmpty());
+
+        taskManager.removeEpic(inName.getId());
+        assertEquals(List.of(inDescription), taskManager.search("отч", 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> taskManager.search("отчет", -1, 10));
+    }
 }
@@ -0,0 +1,40 @@
+package server;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedExecutorTest {
+
+    @Test
+    void shouldRunRequestAsSaturatedWhenNoPermitsLeft() throws InterruptedException {
+        BoundedExecutor executor = new BoundedExecutor(Executors.newFixedThreadPool(1), 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean firstSaturated = new AtomicBoolean(true);
+        AtomicBoolean secondSaturated = new AtomicBoolean(false);
+
+        executor.execute(() -> {
+            firstSaturated.set(BoundedExecutor.isSaturated());
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.execute(() -> secondSaturated.set(BoundedExecutor.isSaturated()));
+        release.countDown();
+
+        assertTrue(executor.shutdown(5, TimeUnit.SECONDS), "Запросы не завершились при остановке");
+        assertFalse(firstSaturated.get(), "Запрос в пределах лимита помечен как лишний");
+        assertTrue(secondSaturated.get(), "Запрос сверх лимита не помечен как лишний");
+        assertFalse(BoundedExecutor.isSaturated());
+    }
+}
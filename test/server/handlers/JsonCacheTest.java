@@ -0,0 +1,91 @@
+package server.handlers;
+
+import com.google.gson.Gson;
+import enums.TaskStatus;
+import managers.InMemoryTaskManager;
+import managers.TaskManager;
+import org.junit.jupiter.api.Test;
+import tasks.Epic;
+import tasks.Subtask;
+import tasks.Task;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonCacheTest {
+    private final TaskManager taskManager = new InMemoryTaskManager();
+    private final JsonCache jsonCache = new JsonCache(taskManager);
+    private final Gson gson = BaseHttpHandler.createGson();
+
+    @Test
+    void shouldReturnSameBytesUntilTaskChanges() {
+        Task task = taskManager.addTask(new Task("Test", "Test description", TaskStatus.NEW, "08.02.25 11:00", 60));
+        byte[] json = jsonCache.toJson(task, jsonCache.stamp());
+
+        assertEquals(gson.toJson(task), new String(json, StandardCharsets.UTF_8));
+        assertSame(json, jsonCache.toJson(task, jsonCache.stamp()), "Повторное чтение должно брать байты из кэша");
+
+        task.setStatus(TaskStatus.DONE);
+        taskManager.updateTask(task);
+        assertEquals(gson.toJson(task), new String(jsonCache.toJson(task, jsonCache.stamp()), StandardCharsets.UTF_8),
+                "Кэш не сброшен после изменения задачи");
+    }
+
+    @Test
+    void shouldInvalidateEpicWhenSubtaskChanges() {
+        Epic epic = taskManager.addEpic(new Epic("Test", "Test description"));
+        String before = new String(jsonCache.toJson(epic, jsonCache.stamp()), StandardCharsets.UTF_8);
+        taskManager.addSubtask(new Subtask("Test", "Test description", TaskStatus.DONE, epic.getId(),
+                "08.02.25 11:00", 60));
+
+        String after = new String(jsonCache.toJson(epic, jsonCache.stamp()), StandardCharsets.UTF_8);
+        assertNotEquals(before, after);
+        assertEquals(gson.toJson(epic), after);
+    }
+
+    @Test
+    void shouldNotLetReadsStartedBeforeChangeReplaceCurrentEntry() {
+        Task task = taskManager.addTask(new Task("Test", "Test description", TaskStatus.NEW, "08.02.25 11:00", 60));
+        long oldStamp = jsonCache.stamp();
+        Task updated = taskManager.updateTask(new Task(task.getId(), "Updated", "Test description",
+                TaskStatus.DONE, "08.02.25 11:00", 60));
+        byte[] current = jsonCache.toJson(updated, jsonCache.stamp());
+
+        assertEquals(gson.toJson(task), new String(jsonCache.toJson(task, oldStamp), StandardCharsets.UTF_8),
+                "Задача, прочитанная до изменения, должна сериализоваться как есть");
+        assertSame(current, jsonCache.toJson(updated, jsonCache.stamp()),
+                "Чтение со старой отметкой не должно вытеснять текущую запись");
+
+        taskManager.removeTask(task.getId());
+        byte[] removed = jsonCache.toJson(updated, oldStamp);
+        assertNotSame(removed, jsonCache.toJson(updated, oldStamp), "Удалённая задача не должна возвращаться в кэш");
+    }
+
+    @Test
+    void shouldKeepSizeWithinLimit() {
+        JsonCache boundedCache = new JsonCache(taskManager, 2);
+        for (int i = 0; i < 5; i++) {
+            Task task = taskManager.addTask(new Task(0, "Test", "Test description", TaskStatus.NEW,
+                    LocalDateTime.of(2025, 2, 8, 11, 0).plusHours(i), Duration.ofMinutes(60)));
+            boundedCache.toJson(task, boundedCache.stamp());
+            assertTrue(boundedCache.size() <= 2, "Кэш превысил лимит записей");
+        }
+    }
+
+    @Test
+    void shouldWriteListLikeGson() throws IOException {
+        Epic epic = taskManager.addEpic(new Epic("Test", "Test description"));
+        taskManager.addSubtask(new Subtask("Подзадача", "Описание", TaskStatus.NEW, epic.getId(),
+                "08.02.25 11:00", 60));
+        taskManager.addTask(new Task("Test", "Test description", TaskStatus.NEW, "09.02.25 11:00", 60));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        jsonCache.writeList(out, taskManager.getPrioritizedTasks(), jsonCache.stamp());
+        assertEquals(gson.toJson(taskManager.getPrioritizedTasks().stream().toList()), out.toString(StandardCharsets.UTF_8));
+    }
+}
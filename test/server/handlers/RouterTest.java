@@ -0,0 +1,41 @@
+package server.handlers;
+
+import enums.Endpoint;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouterTest {
+    private final Router router = new Router()
+            .add("GET", "/epics", Endpoint.GET_ALL)
+            .add("GET", "/epics/{id}", Endpoint.GET_BY_ID)
+            .add("GET", "/epics/{id}/subtasks", Endpoint.GET_SUBLIST_BY_ID)
+            .add("POST", "/epics/batch", Endpoint.POST_BATCH)
+            .add("DELETE", "/epics/{id}", Endpoint.DELETE_BY_ID);
+
+    @Test
+    void shouldResolveEndpointAndIdByMethodAndPath() {
+        assertEquals(new Router.Route(Endpoint.GET_ALL, Router.INVALID_ID), router.resolve("GET", "/epics"));
+        assertEquals(new Router.Route(Endpoint.GET_BY_ID, 15), router.resolve("GET", "/epics/15"));
+        assertEquals(new Router.Route(Endpoint.GET_SUBLIST_BY_ID, 7), router.resolve("GET", "/epics/7/subtasks"));
+        assertEquals(new Router.Route(Endpoint.DELETE_BY_ID, 3), router.resolve("DELETE", "/epics/3"));
+        assertEquals(Endpoint.POST_BATCH, router.resolve("POST", "/epics/batch").endpoint());
+    }
+
+    @Test
+    void shouldReturnUnknownWhenMethodOrShapeDoesNotMatch() {
+        assertEquals(Endpoint.UNKNOWN, router.resolve("GET", "/epics/batch").endpoint(),
+                "Маршрут другого метода не должен подходить");
+        assertEquals(Endpoint.UNKNOWN, router.resolve("POST", "/epics/15").endpoint());
+        assertEquals(Endpoint.UNKNOWN, router.resolve("GET", "/epics/").endpoint());
+        assertEquals(Endpoint.UNKNOWN, router.resolve("GET", "/epics/abc").endpoint());
+        assertEquals(Endpoint.UNKNOWN, router.resolve("GET", "/epics/-1").endpoint());
+    }
+
+    @Test
+    void shouldReturnInvalidIdWhenIdOverflowsInt() {
+        Router.Route route = router.resolve("GET", "/epics/99999999999");
+        assertEquals(Endpoint.GET_BY_ID, route.endpoint());
+        assertEquals(Router.INVALID_ID, route.id());
+    }
+}
@@ -1,8 +1,17 @@
 package tasks;
 
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 import org.junit.jupiter.api.Test;
 import enums.TaskStatus;
 
+import server.adapters.DurationTypeAdapter;
+import server.adapters.LocalDateTimeTypeAdapter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class EpicTest {
@@ -12,4 +21,18 @@ class EpicTest {
         Epic epic2 = new Epic(1, "Test Epic2", "Test Epic2 description", TaskStatus.DONE);
         assertEquals(epic1, epic2, "Задачи не равны");
     }
-}
\ No newline at end of file
+
+    @Test
+    void subtaskIDsShouldBeSerializedAsArray() {
+        Epic epic = new Epic(1, "Test Epic", "Test Epic description", List.of(4, 2, 3));
+        Gson gson = new GsonBuilder()
+                .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeTypeAdapter())
+                .registerTypeAdapter(Duration.class, new DurationTypeAdapter())
+                .create();
+        String json = gson.toJson(epic);
+        assertTrue(json.contains("\"subtaskIDs\":[4,2,3]"), "Неверный формат списка подзадач");
+
+        Epic restored = gson.fromJson(json, Epic.class);
+        assertEquals(List.of(4, 2, 3), restored.getSubtaskIDs());
+    }
+}
@@ -0,0 +1,124 @@
+package utilities;
+
+import enums.TaskStatus;
+import org.junit.jupiter.api.Test;
+import tasks.Epic;
+import tasks.Subtask;
+import tasks.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarTaskStoreTest {
+    @Test
+    void shouldRestoreAllFieldsFromColumns() {
+        ColumnarTaskStore<Task> store = new ColumnarTaskStore<>();
+        LocalDateTime start = LocalDateTime.of(2025, 2, 8, 11, 0, 30, 123_456_789);
+        Subtask subtask = new Subtask(7, "Подзадача", "Описание", TaskStatus.IN_PROGRESS, 3, start,
+                Duration.ofMinutes(90));
+        Task task = new Task(8, "Задача", null, TaskStatus.NEW, (LocalDateTime) null, null);
+        store.put(7, subtask);
+        store.put(8, task);
+
+        Task restored = store.get(7);
+        assertInstanceOf(Subtask.class, restored);
+        assertEquals(subtask, restored);
+        assertEquals(3, ((Subtask) restored).getEpicID());
+        assertEquals(start, restored.getStartTime());
+        assertEquals(Duration.ofMinutes(90), restored.getDuration());
+        assertEquals("Описание", restored.getTaskDescription());
+
+        Task restoredTask = store.get(8);
+        assertEquals("", restoredTask.getTaskDescription());
+        assertEquals(task.getStartTime(), restoredTask.getStartTime());
+        assertEquals(Duration.ZERO, restoredTask.getDuration());
+    }
+
+    @Test
+    void shouldShareAndReleasePooledStrings() {
+        StringPool strings = new StringPool();
+        ColumnarTaskStore<Task> store = new ColumnarTaskStore<>(strings);
+        for (int id = 1; id <= 100; id++) {
+            store.put(id, new Task(id, "Задача", "Общее описание", TaskStatus.NEW, (LocalDateTime) null, null));
+        }
+        assertEquals(2, strings.size(), "Одинаковые строки должны храниться один раз");
+
+        store.put(1, new Task(1, "Другая", "Общее описание", TaskStatus.DONE, (LocalDateTime) null, null));
+        assertEquals(3, strings.size());
+        store.remove(1);
+        assertEquals(2, strings.size(), "Строка без ссылок должна освобождаться");
+        store.clear();
+        assertEquals(0, strings.size());
+    }
+
+    @Test
+    void shouldKeepOrderAcrossRemovalsAndCompaction() {
+        ColumnarTaskStore<Task> store = new ColumnarTaskStore<>();
+        for (int id = 1; id <= 64; id++) {
+            store.put(id, new Task(id, "Задача " + id, "", TaskStatus.NEW, (LocalDateTime) null, null));
+        }
+        for (int id = 1; id <= 64; id++) {
+            if (id % 8 != 0) {
+                store.remove(id);
+            }
+        }
+        List<Integer> ids = new ArrayList<>();
+        store.values().forEach(task -> ids.add(task.getId()));
+
+        assertEquals(List.of(8, 16, 24, 32, 40, 48, 56, 64), ids);
+        assertEquals("Задача 40", store.get(40).getTaskName());
+        assertFalse(store.containsKey(39));
+    }
+
+    @Test
+    void shouldFindPooledStringsAfterChurn() {
+        StringPool strings = new StringPool();
+        int[] refs = new int[1000];
+        for (int i = 0; i < refs.length; i++) {
+            refs[i] = strings.acquire("Строка " + i);
+        }
+        for (int i = 0; i < refs.length; i += 2) {
+            strings.release(refs[i]);
+        }
+        for (int i = 1; i < refs.length; i += 2) {
+            assertEquals(refs[i], strings.acquire("Строка " + i), "Строка должна найтись после удалений");
+            assertEquals("Строка " + i, strings.get(refs[i]));
+        }
+        assertEquals(500, strings.size());
+        assertEquals(-1, strings.acquire(null));
+    }
+
+    @Test
+    void shouldSelectRowsStartingBetweenInScheduleOrder() {
+        StringPool strings = new StringPool();
+        ColumnarTaskStore<Task> tasks = new ColumnarTaskStore<>(strings);
+        ColumnarTaskStore<Subtask> subtasks = new ColumnarTaskStore<>(strings);
+        LocalDateTime start = LocalDateTime.of(2025, 2, 8, 11, 0);
+        tasks.put(1, new Task(1, "Задача", "", TaskStatus.NEW, start.plusHours(2), Duration.ofMinutes(30)));
+        tasks.put(2, new Task(2, "Задача", "", TaskStatus.NEW, start, Duration.ofMinutes(30)));
+        tasks.put(3, new Task(3, "Задача", "", TaskStatus.NEW, start.plusHours(5), Duration.ofMinutes(30)));
+        subtasks.put(4, new Subtask(4, "Подзадача", "", TaskStatus.NEW, 9, start.plusHours(1), Duration.ZERO));
+        subtasks.put(5, new Subtask(5, "Подзадача", "", TaskStatus.NEW, 9, start.plusHours(3), Duration.ZERO));
+        subtasks.put(6, new Subtask(6, "Подзадача", "", TaskStatus.NEW, 9, start.minusHours(1), Duration.ZERO));
+
+        List<Task> page = ColumnarTaskStore.startingBetween(List.of(tasks, subtasks), start, start.plusHours(5),
+                id -> id != 5, 0, 10);
+        assertEquals(List.of(2, 4, 1), page.stream().map(Task::getId).toList(),
+                "Строки должны идти по началу, без отфильтрованных и вне промежутка");
+        assertInstanceOf(Subtask.class, page.get(1));
+
+        List<Task> secondPage = ColumnarTaskStore.startingBetween(List.of(tasks, subtasks), null, null,
+                id -> true, 2, 2);
+        assertEquals(List.of(4, 1), secondPage.stream().map(Task::getId).toList());
+    }
+
+    @Test
+    void shouldRejectEpics() {
+        ColumnarTaskStore<Task> store = new ColumnarTaskStore<>();
+        assertThrows(IllegalArgumentException.class, () -> store.put(1, new Epic("Эпик", "Описание")));
+    }
+}
@@ -0,0 +1,55 @@
+package utilities;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntHashMapTest {
+    @Test
+    void shouldKeepInsertionOrderAndReplaceInPlace() {
+        IntHashMap<String> map = new IntHashMap<>();
+        map.put(3, "c");
+        map.put(1, "a");
+        map.put(2, "b");
+        assertEquals("c", map.put(3, "C"), "Должно вернуться прежнее значение");
+        assertEquals("a", map.remove(1));
+        assertNull(map.remove(1));
+        map.put(1, "A");
+
+        assertEquals(List.of("C", "b", "A"), new ArrayList<>(map.values()));
+        assertEquals(List.of(3, 2, 1), new ArrayList<>(map.keySet()));
+        assertEquals(Map.of(1, "A", 2, "b", 3, "C"), map);
+        assertTrue(map.containsKey(2));
+        assertNull(map.get((Object) "2"));
+    }
+
+    @Test
+    void shouldSurviveGrowthCompactionAndIteratorRemoval() {
+        IntHashMap<String> map = new IntHashMap<>();
+        for (int i = 1; i <= 10_000; i++) {
+            map.put(i, String.valueOf(i * 2));
+        }
+        Iterator<String> iterator = map.values().iterator();
+        while (iterator.hasNext()) {
+            if (Integer.parseInt(iterator.next()) % 4 != 0) {
+                iterator.remove();
+            }
+        }
+        for (int i = 4; i <= 10_000; i += 4) {
+            map.remove(i);
+        }
+
+        assertEquals(2500, map.size());
+        for (int i = 1; i <= 10_000; i++) {
+            assertEquals(i % 4 == 2 ? String.valueOf(i * 2) : null, map.get(i), "Неверное значение для " + i);
+        }
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.values().iterator().hasNext());
+    }
+}
@@ -0,0 +1,46 @@
+package utilities;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntSetTest {
+    @Test
+    void shouldKeepInsertionOrderAfterRemovals() {
+        IntSet set = IntSet.of(5, 3, 9, 1);
+        assertFalse(set.add(3), "Повторное значение не должно добавляться");
+        assertTrue(set.remove(3));
+        assertFalse(set.remove(3));
+        set.add(7);
+
+        assertArrayEquals(new int[]{5, 9, 1, 7}, set.toArray());
+        assertTrue(set.contains(7));
+        assertFalse(set.contains(3));
+        assertEquals(4, set.size());
+    }
+
+    @Test
+    void shouldCompactWhenMostElementsRemoved() {
+        IntSet set = new IntSet();
+        for (int i = 1; i <= 1000; i++) {
+            set.add(i);
+        }
+        for (int i = 1; i <= 1000; i++) {
+            if (i % 10 != 0) {
+                set.remove(i);
+            }
+        }
+        for (int i = 1001; i <= 1010; i++) {
+            set.add(i);
+        }
+
+        int[] values = set.toArray();
+        assertEquals(110, values.length);
+        assertEquals(10, values[0]);
+        assertEquals(1000, values[99]);
+        assertEquals(1010, values[109]);
+        for (int i = 10; i <= 1000; i += 10) {
+            assertTrue(set.contains(i));
+        }
+    }
+}
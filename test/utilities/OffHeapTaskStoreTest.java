@@ -0,0 +1,93 @@
+package utilities;
+
+import enums.TaskStatus;
+import org.junit.jupiter.api.Test;
+import tasks.Subtask;
+import tasks.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapTaskStoreTest {
+    @Test
+    void shouldRestoreTaskFromOffHeapRecord() {
+        OffHeapTaskStore<Task> store = new OffHeapTaskStore<>();
+        LocalDateTime start = LocalDateTime.of(2025, 2, 8, 11, 0, 30, 123_456_789);
+        Subtask subtask = new Subtask(7, "Подзадача", "Описание", TaskStatus.IN_PROGRESS, 3, start,
+                Duration.ofMinutes(90));
+        store.put(7, subtask);
+
+        Task restored = store.get(7);
+        assertInstanceOf(Subtask.class, restored);
+        assertEquals(subtask, restored);
+        assertEquals(3, ((Subtask) restored).getEpicID());
+        assertEquals(start, restored.getStartTime());
+        assertEquals(Duration.ofMinutes(90), restored.getDuration());
+        assertEquals("Описание", restored.getTaskDescription());
+    }
+
+    @Test
+    void shouldReuseFreedBlocks() {
+        OffHeapTaskStore<Task> store = new OffHeapTaskStore<>();
+        for (int id = 1; id <= 20_000; id++) {
+            store.put(id, new Task(id, "Задача " + id, "Описание", TaskStatus.NEW, (LocalDateTime) null, null));
+        }
+        long allocated = store.allocatedBytes();
+        for (int id = 1; id <= 20_000; id += 2) {
+            store.remove(id);
+        }
+        for (int id = 20_001; id <= 30_000; id++) {
+            store.put(id, new Task(id, "Задача " + id, "Описание", TaskStatus.NEW, (LocalDateTime) null, null));
+        }
+
+        assertEquals(allocated, store.allocatedBytes(), "Освобождённое место должно использоваться повторно");
+        assertEquals(20_000, store.size());
+        assertEquals("Задача 25000", store.get(25_000).getTaskName());
+        assertNull(store.get(1));
+    }
+
+    @Test
+    void shouldStoreLargeRecordsInSeparateSegments() {
+        OffHeapTaskStore<Task> store = new OffHeapTaskStore<>();
+        String description = "Описание ".repeat(20_000);
+        store.put(1, new Task(1, "Маленькая", "", TaskStatus.NEW, (LocalDateTime) null, null));
+        store.put(2, new Task(2, "Большая", description, TaskStatus.NEW, (LocalDateTime) null, null));
+        store.put(3, new Task(3, "Ещё одна", "", TaskStatus.NEW, (LocalDateTime) null, null));
+
+        assertEquals(description, store.get(2).getTaskDescription());
+        List<String> names = new ArrayList<>();
+        store.values().forEach(task -> names.add(task.getTaskName()));
+        assertEquals(List.of("Маленькая", "Большая", "Ещё одна"), names);
+    }
+
+    @Test
+    void shouldReleaseSegmentsWithoutLiveRecords() {
+        OffHeapTaskStore<Task> store = new OffHeapTaskStore<>();
+        String description = "Описание ".repeat(20_000);
+        store.put(1, new Task(1, "Большая", description, TaskStatus.NEW, (LocalDateTime) null, null));
+        for (int id = 2; id <= 30_000; id++) {
+            store.put(id, new Task(id, "Задача " + id, "Описание", TaskStatus.NEW, (LocalDateTime) null, null));
+        }
+        long allocated = store.allocatedBytes();
+
+        store.remove(1);
+        assertTrue(store.allocatedBytes() < allocated, "Сегмент крупной записи не отпущен");
+        allocated = store.allocatedBytes();
+        for (int id = 2; id <= 15_000; id++) {
+            store.remove(id);
+        }
+        assertTrue(store.allocatedBytes() < allocated, "Опустевший общий сегмент не отпущен");
+
+        for (int id = 30_001; id <= 45_000; id++) {
+            store.put(id, new Task(id, "Задача " + id, "Описание", TaskStatus.NEW, (LocalDateTime) null, null));
+        }
+        assertEquals(30_000, store.size());
+        assertEquals("Задача 20000", store.get(20_000).getTaskName());
+        assertEquals("Задача 40000", store.get(40_000).getTaskName());
+        assertNull(store.get(1));
+    }
+}
@@ -0,0 +1,47 @@
+package utilities;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextIndexTest {
+    @Test
+    void shouldRankNameMatchesAndRareWordsHigher() {
+        TextIndex index = new TextIndex();
+        index.add(1, "Отчёт", "Квартальный отчёт для бухгалтерии");
+        index.add(2, "Бухгалтерия", "Сдать отчёт");
+        index.add(3, "Созвон", "Обсудить отчёт с бухгалтерией");
+
+        assertArrayEquals(new int[]{1, 2, 3}, index.search("отчет", 10),
+                "Слово в названии весит больше, \"ё\" и \"е\" не различаются");
+        assertArrayEquals(new int[]{2, 1, 3}, index.search("бухгалтер", 10),
+                "Целое слово в названии важнее начала слова в описании");
+        assertArrayEquals(new int[]{3}, index.search("созвон отчёт", 10), "Должны совпасть все слова запроса");
+        assertArrayEquals(new int[]{1}, index.search("отчет", 1));
+        assertEquals(0, index.search("о", 10).length, "Одна буква не раскрывается как начало слова");
+    }
+
+    @Test
+    void shouldForgetRemovedAndReplacedDocuments() {
+        TextIndex index = new TextIndex();
+        index.add(1, "Купить молоко", "");
+        index.add(2, "Купить хлеб", "");
+        index.add(1, "Позвонить маме", "");
+        index.remove(2);
+
+        assertEquals(0, index.search("купить", 10).length);
+        assertArrayEquals(new int[]{1}, index.search("позв", 10));
+        assertEquals(1, index.size());
+        assertTrue(index.matchAll("позв").isEmpty(), "Фильтр совпадает только по целым словам");
+        assertTrue(index.matchAll("позвонить маме").get(1));
+        assertNull(index.matchAll("..."));
+    }
+
+    @Test
+    void shouldJoinDecomposedCyrillicLetters() {
+        TextIndex index = new TextIndex();
+        index.add(1, "Мои\u0306 проект", "");
+
+        assertArrayEquals(new int[]{1}, index.search("мой", 10));
+    }
+}